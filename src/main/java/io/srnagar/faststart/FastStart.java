@@ -0,0 +1,163 @@
+package io.srnagar.faststart;
+
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.credential.TokenRequestContext;
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelineNextSyncPolicy;
+import com.azure.core.http.HttpPipelinePosition;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import com.azure.identity.AzureCliCredentialBuilder;
+import com.azure.identity.ClientSecretCredentialBuilder;
+import com.azure.identity.DefaultAzureCredentialBuilder;
+import com.azure.identity.ManagedIdentityCredentialBuilder;
+import com.azure.identity.WorkloadIdentityCredentialBuilder;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fast-start helpers shared by all samples.
+ *
+ * {@link #credential()} returns a single process-wide credential that is only resolved when the
+ * first token is requested. If an explicit credential is configured it is built directly, skipping
+ * the {@code DefaultAzureCredential} chain. In order of precedence:
+ * - AZURE_TOKEN_CREDENTIALS=AzureCliCredential or ManagedIdentityCredential: that credential only;
+ *   any other AZURE_TOKEN_CREDENTIALS value is left to DefaultAzureCredential
+ * - AZURE_CLIENT_ID, AZURE_TENANT_ID and AZURE_CLIENT_SECRET: client secret credential
+ * - AZURE_CLIENT_ID, AZURE_TENANT_ID and AZURE_FEDERATED_TOKEN_FILE: workload identity credential
+ *
+ * {@link #startupProbe()} is a pipeline policy used by {@link StartupBenchmark} and the AppCDS
+ * training run; it does nothing unless the {@code faststart.probe} system property is set. In
+ * {@code report} mode it runs after the client's authentication policy, so the time it reports
+ * includes resolving the credential and fetching the first token; in {@code abort} mode it runs
+ * before authentication, so no credential is needed.
+ */
+public final class FastStart {
+
+    /**
+     * System property selecting the probe mode: {@code report} prints the time from JVM start to
+     * the first authenticated request and exits, {@code abort} fails every request without touching the network.
+     */
+    public static final String PROBE_PROPERTY = "faststart.probe";
+
+    /**
+     * Prefix of the line printed by the probe in {@code report} mode.
+     */
+    public static final String REPORT_PREFIX = "time-to-first-request-ms=";
+
+    private static final Lazy<TokenCredential> CREDENTIAL = Lazy.of(FastStart::resolveCredential);
+    private static final TokenCredential LAZY_CREDENTIAL = new TokenCredential() {
+        @Override
+        public Mono<AccessToken> getToken(TokenRequestContext request) {
+            return Mono.defer(() -> CREDENTIAL.get().getToken(request));
+        }
+
+        @Override
+        public AccessToken getTokenSync(TokenRequestContext request) {
+            return CREDENTIAL.get().getTokenSync(request);
+        }
+    };
+    private static final HttpPipelinePolicy STARTUP_PROBE = new StartupProbe(System.getProperty(PROBE_PROPERTY));
+
+    private FastStart() {
+    }
+
+    /**
+     * Returns the shared credential, resolved on first token request.
+     */
+    public static TokenCredential credential() {
+        return LAZY_CREDENTIAL;
+    }
+
+    /**
+     * Returns the startup probe policy to register on client builders via {@code addPolicy}.
+     */
+    public static HttpPipelinePolicy startupProbe() {
+        return STARTUP_PROBE;
+    }
+
+    private static TokenCredential resolveCredential() {
+        String clientId = System.getenv("AZURE_CLIENT_ID");
+        String tenantId = System.getenv("AZURE_TENANT_ID");
+        String clientSecret = System.getenv("AZURE_CLIENT_SECRET");
+        String tokenFile = System.getenv("AZURE_FEDERATED_TOKEN_FILE");
+        String selected = System.getenv("AZURE_TOKEN_CREDENTIALS");
+
+        // An explicit AZURE_TOKEN_CREDENTIALS selection wins, as it does for DefaultAzureCredential
+        if ("AzureCliCredential".equalsIgnoreCase(selected)) {
+            return new AzureCliCredentialBuilder().build();
+        }
+        if ("ManagedIdentityCredential".equalsIgnoreCase(selected)) {
+            ManagedIdentityCredentialBuilder builder = new ManagedIdentityCredentialBuilder();
+            return clientId == null ? builder.build() : builder.clientId(clientId).build();
+        }
+        if (selected != null && !selected.isEmpty()) {
+            // Any other selection (dev, prod, EnvironmentCredential, ...) is DefaultAzureCredential's to honour
+            return new DefaultAzureCredentialBuilder().build();
+        }
+        if (clientId != null && tenantId != null && clientSecret != null) {
+            return new ClientSecretCredentialBuilder()
+                .clientId(clientId)
+                .tenantId(tenantId)
+                .clientSecret(clientSecret)
+                .build();
+        }
+        if (clientId != null && tenantId != null && tokenFile != null) {
+            return new WorkloadIdentityCredentialBuilder()
+                .clientId(clientId)
+                .tenantId(tenantId)
+                .tokenFilePath(tokenFile)
+                .build();
+        }
+        return new DefaultAzureCredentialBuilder().build();
+    }
+
+    private static final class StartupProbe implements HttpPipelinePolicy {
+        private final String mode;
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        StartupProbe(String mode) {
+            this.mode = mode;
+        }
+
+        @Override
+        public HttpPipelinePosition getPipelinePosition() {
+            // report measures up to an authenticated request (builders add PER_RETRY policies after
+            // the authentication policy); abort must fire before authentication so training runs
+            // need no credentials
+            return "abort".equals(mode) ? HttpPipelinePosition.PER_CALL : HttpPipelinePosition.PER_RETRY;
+        }
+
+        @Override
+        public Mono<HttpResponse> process(HttpPipelineCallContext context, HttpPipelineNextPolicy next) {
+            if (mode == null) {
+                return next.process();
+            }
+            return Mono.fromRunnable(this::onRequest).then(Mono.defer(next::process));
+        }
+
+        @Override
+        public HttpResponse processSync(HttpPipelineCallContext context, HttpPipelineNextSyncPolicy next) {
+            if (mode != null) {
+                onRequest();
+            }
+            return next.processSync();
+        }
+
+        private void onRequest() {
+            if ("abort".equals(mode)) {
+                throw new IllegalStateException("Request aborted by startup probe");
+            }
+            if ("report".equals(mode) && reported.compareAndSet(false, true)) {
+                long startMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+                System.out.println(REPORT_PREFIX + (System.currentTimeMillis() - startMillis));
+                System.out.flush();
+                System.exit(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.srnagar.faststart;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe memoizing supplier.
+ *
+ * {@link FastStart} uses it to build the shared credential on the first token request, so a
+ * process that never authenticates never loads or configures the identity classes.
+ */
+final class Lazy<T> implements Supplier<T> {
+
+    private final Supplier<T> factory;
+    private volatile T value;
+
+    private Lazy(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    static <T> Lazy<T> of(Supplier<T> factory) {
+        return new Lazy<>(Objects.requireNonNull(factory, "'factory' cannot be null."));
+    }
+
+    @Override
+    public T get() {
+        T result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = Objects.requireNonNull(factory.get(), "Lazy factory returned null");
+                    value = result;
+                }
+            }
+        }
+        return result;
+    }
+}
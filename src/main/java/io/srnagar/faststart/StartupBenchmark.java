@@ -0,0 +1,114 @@
+package io.srnagar.faststart;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup benchmark: measures time-to-first-request for each sample.
+ *
+ * Each sample is launched in a fresh JVM with {@code -Dfaststart.probe=report}; the startup probe
+ * prints the time from JVM start to the first request leaving the client's authentication policy
+ * and exits before anything is sent. Credential resolution and the first token fetch are therefore
+ * included; a sample whose credential cannot get a token reports n/a. Runs are repeated with the AppCDS archive when one exists.
+ *
+ * To run this benchmark:
+ * 1. Build the archive and run the benchmark: mvn -Pappcds verify
+ * 2. Or run directly with the same classpath the archive was built with:
+ *    java -Dfaststart.archive=target/app-cds.jsa -cp ... io.srnagar.faststart.StartupBenchmark [iterations]
+ *
+ * Set AZURE_CLIENT_ID, AZURE_TENANT_ID and AZURE_CLIENT_SECRET to measure the explicit credential path;
+ * leave them unset to measure the DefaultAzureCredential chain.
+ */
+public class StartupBenchmark {
+
+    static final List<String> SAMPLES = Arrays.asList(
+        "io.srnagar.storage.App",
+        "io.srnagar.monitor.logs.App",
+        "io.srnagar.monitor.metrics.App",
+        "io.srnagar.openai.App"
+    );
+
+    private static final long TIMEOUT_SECONDS = 60;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        String archive = System.getProperty("faststart.archive", "target/app-cds.jsa");
+        boolean hasArchive = new File(archive).isFile();
+
+        System.out.println("=== Startup Benchmark (time-to-first-request, median of " + iterations + " runs) ===");
+        if (!hasArchive) {
+            System.out.println("ℹ️  No AppCDS archive at " + archive + "; run mvn -Pappcds package to create one");
+        }
+        System.out.println();
+        System.out.printf("%-34s %12s %12s%n", "Sample", "Default", hasArchive ? "AppCDS" : "");
+
+        for (String sample : SAMPLES) {
+            long baseline = median(sample, iterations, Collections.emptyList());
+            String withArchive = "";
+            if (hasArchive) {
+                withArchive = format(median(sample, iterations, List.of("-XX:SharedArchiveFile=" + archive)));
+            }
+            System.out.printf("%-34s %12s %12s%n", sample, format(baseline), withArchive);
+        }
+    }
+
+    private static long median(String sample, int iterations, List<String> jvmArgs) throws Exception {
+        List<Long> timings = new ArrayList<>();
+        for (int i = 0; i < iterations; i++) {
+            long millis = runOnce(sample, jvmArgs);
+            if (millis >= 0) {
+                timings.add(millis);
+            }
+        }
+        if (timings.isEmpty()) {
+            return -1;
+        }
+        Collections.sort(timings);
+        return timings.get(timings.size() / 2);
+    }
+
+    /**
+     * Launches one sample and returns its reported time-to-first-request, or {@code -1} if the
+     * sample exited or timed out without sending a request.
+     */
+    private static long runOnce(String sample, List<String> jvmArgs) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(jvmArgs);
+        command.add("-D" + FastStart.PROBE_PROPERTY + "=report");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(sample);
+
+        File output = File.createTempFile("startup-benchmark", ".log");
+        try {
+            Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(output)
+                .start();
+            if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return -1;
+            }
+            for (String line : Files.readAllLines(output.toPath(), StandardCharsets.UTF_8)) {
+                if (line.startsWith(FastStart.REPORT_PREFIX)) {
+                    return Long.parseLong(line.substring(FastStart.REPORT_PREFIX.length()).trim());
+                }
+            }
+            return -1;
+        } finally {
+            Files.deleteIfExists(output.toPath());
+        }
+    }
+
+    private static String format(long millis) {
+        return millis < 0 ? "n/a" : millis + " ms";
+    }
+}
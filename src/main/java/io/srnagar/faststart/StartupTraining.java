@@ -0,0 +1,62 @@
+package io.srnagar.faststart;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * AppCDS training run.
+ *
+ * Runs every sample once so that the classes they load can be written to a static CDS archive.
+ * Requests are failed by the startup probe before they reach the network, so this needs no
+ * Azure resources or credentials. The {@code appcds} Maven profile runs three steps:
+ *
+ * <pre>
+ * java -XX:DumpLoadedClassList=target/appcds-classes.lst -Dfaststart.probe=abort -cp ... io.srnagar.faststart.StartupTraining
+ * java -cp ... io.srnagar.faststart.StartupTraining --strip-lambda-proxies target/appcds-classes.lst
+ * java -Xshare:dump -XX:SharedClassListFile=target/appcds-classes.lst -XX:SharedArchiveFile=target/app-cds.jsa -cp ...
+ * </pre>
+ *
+ * The archive only covers classes loaded from jars, so the samples must run from the packaged jar.
+ */
+public class StartupTraining {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && "--strip-lambda-proxies".equals(args[0])) {
+            stripLambdaProxies(Paths.get(args[1]));
+            return;
+        }
+
+        if (!"abort".equals(System.getProperty(FastStart.PROBE_PROPERTY))) {
+            System.err.println("❌ Run with -D" + FastStart.PROBE_PROPERTY + "=abort so no real requests are sent");
+            System.exit(1);
+        }
+
+        for (String sample : StartupBenchmark.SAMPLES) {
+            System.out.println("🏋️  Training: " + sample);
+            try {
+                Class.forName(sample).getMethod("main", String[].class).invoke(null, (Object) new String[0]);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("   ⚠️  Could not run " + sample + ": " + e);
+            }
+        }
+
+        // Exit explicitly in case a client left non-daemon threads behind
+        System.exit(0);
+    }
+
+    /**
+     * Removes lambda proxy entries from a class list. JDK 17 crashes while dumping an archive
+     * that contains lambda proxies whose host classes come from signed jars, such as azure-core.
+     */
+    private static void stripLambdaProxies(Path classList) throws IOException {
+        List<String> kept = Files.readAllLines(classList, StandardCharsets.UTF_8).stream()
+            .filter(line -> !line.startsWith("@lambda-proxy"))
+            .collect(Collectors.toList());
+        Files.write(classList, kept, StandardCharsets.UTF_8);
+    }
+}
@@ -1,12 +1,20 @@
 package io.srnagar.monitor.logs;
 
-import com.azure.identity.DefaultAzureCredentialBuilder;
 import com.azure.monitor.query.logs.LogsQueryClient;
 import com.azure.monitor.query.logs.LogsQueryClientBuilder;
 import com.azure.monitor.query.logs.models.LogsQueryResult;
 import com.azure.monitor.query.logs.models.LogsQueryTimeInterval;
+import io.srnagar.faststart.FastStart;
+import io.srnagar.resilience.Resilience;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Standalone Azure Monitor Logs Query sample application
@@ -16,6 +24,9 @@ import java.time.Duration;
  * - Querying performance counters
  * - Executing custom KQL queries
  * - Processing query results
+ * - Retries, circuit breaking and hedged queries via the shared resilience layer
+ * - The shared fast-start credential, resolved on the first token request
+ * - Exporting query results to compressed columnar files and reading them back
  * 
  * To run this sample:
  * 1. Set the AZURE_LOG_ANALYTICS_WORKSPACE_ID environment variable
@@ -36,9 +47,12 @@ public class App {
         }
         
         try {
-            // Create LogsQueryClient using DefaultAzureCredential
+            // Create LogsQueryClient with the fast-start credential
             LogsQueryClient logsQueryClient = new LogsQueryClientBuilder()
-                .credential(new DefaultAzureCredentialBuilder().build())
+                .credential(FastStart.credential())
+                .addPolicy(FastStart.startupProbe())
+                .addPolicy(Resilience.getDefault().getPolicy())
+                .retryOptions(Resilience.sdkRetriesDisabled())
                 .buildClient();
             
             System.out.println("\\n📊 Executing sample queries...");
@@ -55,6 +69,10 @@ public class App {
             System.out.println("\\n⚡ Query 3: Performance Counters (last hour)");
             queryPerformanceCounters(logsQueryClient, workspaceId);
             
+            // Export: Heartbeats from the last 24 hours to a local columnar file
+            System.out.println("\\n📦 Export: Heartbeat Data (last 24 hours, hourly slices)");
+            exportHeartbeats(logsQueryClient, workspaceId);
+            
             System.out.println("\\n🎉 Azure Monitor Logs sample completed successfully!");
             
         } catch (Exception e) {
@@ -73,7 +91,8 @@ public class App {
             String kustoQuery = "AppTraces | where TimeGenerated > ago(1h) | limit 10";
             
             LogsQueryTimeInterval timeInterval = new LogsQueryTimeInterval(Duration.ofHours(1));
-            LogsQueryResult result = client.queryWorkspace(workspaceId, kustoQuery, timeInterval);
+            LogsQueryResult result = Resilience.getDefault().hedge(
+                () -> client.queryWorkspace(workspaceId, kustoQuery, timeInterval));
             
             System.out.println("   Query executed successfully!");
             System.out.println("   Tables returned: " + result.getAllTables().size());
@@ -96,7 +115,8 @@ public class App {
             String kustoQuery = "Heartbeat | where TimeGenerated > ago(30m) | limit 5";
             
             LogsQueryTimeInterval timeInterval = new LogsQueryTimeInterval(Duration.ofMinutes(30));
-            LogsQueryResult result = client.queryWorkspace(workspaceId, kustoQuery, timeInterval);
+            LogsQueryResult result = Resilience.getDefault().hedge(
+                () -> client.queryWorkspace(workspaceId, kustoQuery, timeInterval));
             
             System.out.println("   Query executed successfully!");
             System.out.println("   Tables returned: " + result.getAllTables().size());
@@ -125,7 +145,8 @@ public class App {
                 """;
             
             LogsQueryTimeInterval timeInterval = new LogsQueryTimeInterval(Duration.ofHours(1));
-            LogsQueryResult result = client.queryWorkspace(workspaceId, kustoQuery, timeInterval);
+            LogsQueryResult result = Resilience.getDefault().hedge(
+                () -> client.queryWorkspace(workspaceId, kustoQuery, timeInterval));
             
             System.out.println("   Query executed successfully!");
             System.out.println("   Tables returned: " + result.getAllTables().size());
@@ -142,4 +163,33 @@ public class App {
             System.out.println("   ⚠️  Could not execute performance query: " + e.getMessage());
         }
     }
+    
+    private static void exportHeartbeats(LogsQueryClient client, String workspaceId) {
+        try {
+            Path file = Files.createTempFile("heartbeat-export-", ".lcol");
+            OffsetDateTime end = OffsetDateTime.now(ZoneOffset.UTC);
+            
+            long rows = new LogsExporter(client, workspaceId)
+                .setSliceDuration(Duration.ofHours(1))
+                .setParallelism(4)
+                .exportToFile("Heartbeat", end.minusHours(24), end, file);
+            
+            System.out.println("   Exported " + rows + " rows to " + file + " (" + Files.size(file) + " bytes)");
+            
+            // Read back only the Computer column; other columns are skipped without decompression
+            try (LogsColumnarReader reader = new LogsColumnarReader(file)) {
+                int computerColumn = reader.getColumnNames().indexOf("Computer");
+                if (computerColumn >= 0) {
+                    Set<String> computers = new HashSet<>();
+                    LogsColumnarReader.Block block;
+                    while ((block = reader.readBlock(computerColumn)) != null) {
+                        computers.addAll(Arrays.asList(block.getColumn(computerColumn)));
+                    }
+                    System.out.println("   Distinct computers in export: " + computers.size());
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("   ⚠️  Could not export heartbeat data: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,235 @@
+package io.srnagar.monitor.logs;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads files written by {@link LogsColumnarWriter} one block at a time.
+ *
+ * Only the requested columns are inflated and decoded; the others are skipped without
+ * decompression. Every decoded chunk is checked against its CRC32.
+ *
+ * Usage:
+ * <pre>
+ * try (LogsColumnarReader reader = new LogsColumnarReader(Paths.get("export.lcol"))) {
+ *     LogsColumnarReader.Block block;
+ *     while ((block = reader.readBlock()) != null) {
+ *         String[] timeGenerated = block.getColumn(0);
+ *     }
+ * }
+ * </pre>
+ */
+public class LogsColumnarReader implements Closeable {
+
+    private final DataInputStream in;
+    private final List<String> columnNames;
+    private final List<String> columnTypes;
+    private final Inflater inflater = new Inflater();
+    private final CRC32 crc = new CRC32();
+    private long blockIndex;
+    private boolean finished;
+
+    public LogsColumnarReader(Path file) throws IOException {
+        this(Files.newInputStream(file));
+    }
+
+    public LogsColumnarReader(InputStream input) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(input, 256 * 1024));
+        if (in.readInt() != LogsColumnarWriter.MAGIC) {
+            throw new IOException("Not a columnar log export file");
+        }
+        int version = in.readInt();
+        if (version != LogsColumnarWriter.VERSION) {
+            throw new IOException("Unsupported columnar log export version " + version);
+        }
+        int columnCount = in.readInt();
+        List<String> names = new ArrayList<>(columnCount);
+        List<String> types = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            names.add(in.readUTF());
+            types.add(in.readUTF());
+        }
+        this.columnNames = Collections.unmodifiableList(names);
+        this.columnTypes = Collections.unmodifiableList(types);
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public List<String> getColumnTypes() {
+        return columnTypes;
+    }
+
+    /**
+     * Reads the next block, decoding only the given column indexes (all columns if none are
+     * given). Returns {@code null} once the end of the file is reached.
+     */
+    public Block readBlock(int... columns) throws IOException {
+        if (finished) {
+            return null;
+        }
+        int rowCount;
+        try {
+            rowCount = in.readInt();
+        } catch (EOFException e) {
+            throw new IOException("Truncated columnar log export: missing end marker", e);
+        }
+        if (rowCount == 0) {
+            finished = true;
+            return null;
+        }
+
+        boolean[] wanted = new boolean[columnNames.size()];
+        if (columns.length == 0) {
+            Arrays.fill(wanted, true);
+        } else {
+            for (int column : columns) {
+                wanted[column] = true;
+            }
+        }
+
+        String[][] values = new String[columnNames.size()][];
+        for (int column = 0; column < values.length; column++) {
+            int compressedLength = in.readInt();
+            int rawLength = in.readInt();
+            int expectedCrc = in.readInt();
+            if (!wanted[column]) {
+                in.skipNBytes(compressedLength);
+                continue;
+            }
+
+            byte[] compressed = in.readNBytes(compressedLength);
+            if (compressed.length != compressedLength) {
+                throw new IOException("Truncated columnar log export in block " + blockIndex);
+            }
+            crc.reset();
+            crc.update(compressed);
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IOException("Checksum mismatch in block " + blockIndex + ", column "
+                    + columnNames.get(column));
+            }
+            values[column] = decode(inflate(compressed, rawLength), rowCount);
+        }
+        blockIndex++;
+        return new Block(rowCount, values);
+    }
+
+    /**
+     * Calls {@code consumer} once per row with all column values and returns the number of rows.
+     * The array passed to the consumer is reused between rows.
+     */
+    public long forEachRow(Consumer<String[]> consumer) throws IOException {
+        long rows = 0;
+        String[] row = new String[columnNames.size()];
+        Block block;
+        while ((block = readBlock()) != null) {
+            for (int r = 0; r < block.rowCount; r++) {
+                for (int column = 0; column < row.length; column++) {
+                    row[column] = block.columns[column][r];
+                }
+                consumer.accept(row);
+            }
+            rows += block.rowCount;
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+    private byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int offset = 0;
+            while (offset < rawLength && !inflater.finished()) {
+                int read = inflater.inflate(raw, offset, rawLength - offset);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += read;
+            }
+            if (offset != rawLength) {
+                throw new IOException("Corrupt column chunk in block " + blockIndex);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column chunk in block " + blockIndex, e);
+        }
+        return raw;
+    }
+
+    private static String[] decode(byte[] chunk, int rowCount) {
+        int[] position = {0};
+        int dictionarySize = readVarInt(chunk, position);
+        String[] dictionary = new String[dictionarySize + 1];
+        for (int i = 1; i <= dictionarySize; i++) {
+            int length = readVarInt(chunk, position);
+            dictionary[i] = new String(chunk, position[0], length, StandardCharsets.UTF_8);
+            position[0] += length;
+        }
+
+        String[] values = new String[rowCount];
+        int runCount = readVarInt(chunk, position);
+        int row = 0;
+        for (int run = 0; run < runCount; run++) {
+            String value = dictionary[readVarInt(chunk, position)];
+            int length = readVarInt(chunk, position);
+            Arrays.fill(values, row, row + length, value);
+            row += length;
+        }
+        return values;
+    }
+
+    private static int readVarInt(byte[] data, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * One block of rows; columns that were not requested are {@code null}.
+     */
+    public static final class Block {
+        private final int rowCount;
+        private final String[][] columns;
+
+        Block(int rowCount, String[][] columns) {
+            this.rowCount = rowCount;
+            this.columns = columns;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public String[] getColumn(int index) {
+            return columns[index];
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package io.srnagar.monitor.logs;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Streams rows into a compressed, column-oriented file.
+ *
+ * Rows are buffered into blocks of at most {@code blockRows}; memory use is bounded by one block.
+ * Layout (all integers big-endian):
+ * <pre>
+ * "LCOL" | version:int | columnCount:int | (name:UTF, type:UTF) * columnCount
+ * block*  : rowCount:int | (compressedLength:int, rawLength:int, crc32:int, deflate(columnChunk)) * columnCount
+ * end     : rowCount:int = 0
+ * </pre>
+ * Each column chunk is dictionary encoded and then run-length encoded:
+ * <pre>
+ * dictionarySize:varint | (byteLength:varint, utf8) * dictionarySize | runCount:varint | (id:varint, length:varint) * runCount
+ * </pre>
+ * Id 0 is null; id {@code n} is dictionary entry {@code n - 1}. The CRC covers the compressed bytes.
+ */
+public class LogsColumnarWriter implements Closeable {
+
+    static final int MAGIC = 0x4C434F4C; // "LCOL"
+    static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private final int columnCount;
+    private final int blockRows;
+    private final String[][] block;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+    private final byte[] deflateBuffer = new byte[64 * 1024];
+    private int rowsInBlock;
+    private long rowCount;
+    private boolean closed;
+
+    public LogsColumnarWriter(OutputStream out, List<String> columnNames, List<String> columnTypes, int blockRows)
+        throws IOException {
+        if (columnNames.size() != columnTypes.size()) {
+            throw new IllegalArgumentException("Column names and types must have the same size.");
+        }
+        if (blockRows < 1) {
+            throw new IllegalArgumentException("'blockRows' must be at least 1.");
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.columnCount = columnNames.size();
+        this.blockRows = blockRows;
+        this.block = new String[columnCount][blockRows];
+
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(VERSION);
+        this.out.writeInt(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            this.out.writeUTF(columnNames.get(i));
+            this.out.writeUTF(columnTypes.get(i));
+        }
+    }
+
+    /**
+     * Appends one row; {@code values} must have one entry per column and may contain nulls.
+     */
+    public void writeRow(String[] values) throws IOException {
+        if (values.length != columnCount) {
+            throw new IllegalArgumentException("Expected " + columnCount + " values but got " + values.length);
+        }
+        for (int column = 0; column < columnCount; column++) {
+            block[column][rowsInBlock] = values[column];
+        }
+        rowsInBlock++;
+        rowCount++;
+        if (rowsInBlock == blockRows) {
+            flushBlock();
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (rowsInBlock > 0) {
+                flushBlock();
+            }
+            out.writeInt(0);
+            out.flush();
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        out.writeInt(rowsInBlock);
+        CRC32 crc = new CRC32();
+        for (int column = 0; column < columnCount; column++) {
+            byte[] raw = encode(block[column], rowsInBlock);
+            byte[] compressed = compress(raw);
+            crc.reset();
+            crc.update(compressed);
+            out.writeInt(compressed.length);
+            out.writeInt(raw.length);
+            out.writeInt((int) crc.getValue());
+            out.write(compressed);
+            // Drop references so the previous block's strings can be collected
+            Arrays.fill(block[column], 0, rowsInBlock, null);
+        }
+        rowsInBlock = 0;
+    }
+
+    private byte[] encode(String[] values, int count) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        ByteArrayOutputStream entries = new ByteArrayOutputStream();
+        ByteArrayOutputStream runs = new ByteArrayOutputStream();
+        int runCount = 0;
+        int runId = -1;
+        int runLength = 0;
+
+        for (int row = 0; row < count; row++) {
+            String value = values[row];
+            int id = 0;
+            if (value != null) {
+                Integer existing = dictionary.get(value);
+                if (existing == null) {
+                    existing = dictionary.size() + 1;
+                    dictionary.put(value, existing);
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    writeVarInt(entries, bytes.length);
+                    entries.write(bytes, 0, bytes.length);
+                }
+                id = existing;
+            }
+            if (id == runId) {
+                runLength++;
+            } else {
+                if (runLength > 0) {
+                    writeVarInt(runs, runId);
+                    writeVarInt(runs, runLength);
+                    runCount++;
+                }
+                runId = id;
+                runLength = 1;
+            }
+        }
+        if (runLength > 0) {
+            writeVarInt(runs, runId);
+            writeVarInt(runs, runLength);
+            runCount++;
+        }
+
+        chunk.reset();
+        writeVarInt(chunk, dictionary.size());
+        chunk.writeBytes(entries.toByteArray());
+        writeVarInt(chunk, runCount);
+        chunk.writeBytes(runs.toByteArray());
+        return chunk.toByteArray();
+    }
+
+    private byte[] compress(byte[] data) {
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        while (!deflater.finished()) {
+            int length = deflater.deflate(deflateBuffer);
+            compressed.write(deflateBuffer, 0, length);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
@@ -0,0 +1,391 @@
+package io.srnagar.monitor.logs;
+
+import com.azure.core.models.ResponseError;
+import com.azure.core.util.Context;
+import com.azure.monitor.query.logs.LogsQueryClient;
+import com.azure.monitor.query.logs.models.LogsQueryOptions;
+import com.azure.monitor.query.logs.models.LogsQueryResult;
+import com.azure.monitor.query.logs.models.LogsQueryResultStatus;
+import com.azure.monitor.query.logs.models.LogsQueryTimeInterval;
+import com.azure.monitor.query.logs.models.LogsTable;
+import com.azure.monitor.query.logs.models.LogsTableCell;
+import com.azure.monitor.query.logs.models.LogsTableColumn;
+import com.azure.monitor.query.logs.models.LogsTableRow;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.specialized.BlockBlobClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk-exports KQL query results into columnar files (see {@link LogsColumnarWriter}).
+ *
+ * The time range is cut into slices that are queried in parallel, but written strictly in time
+ * order. Each slice adds {@code | where <timeColumn> >= start and <timeColumn> < end} to the query
+ * so rows on a slice boundary are exported exactly once.
+ *
+ * A single query is limited by the service to 500,000 rows and about 100 MB of results. A slice
+ * that comes back truncated by one of those limits is split in half and each half re-queried in
+ * its place, at most {@value #MAX_SPLIT_DEPTH} times and down to one second; a slice that is
+ * still truncated then fails the export rather than silently dropping rows. Any other partial
+ * failure fails the export straight away.
+ *
+ * Slice results are fully materialized by the SDK, so memory is bounded by {@code parallelism} + 1
+ * slice results plus one block of rows, not by the block size alone. Each result is written and
+ * released before the next one is taken, split halves included. Pick a slice duration that keeps
+ * typical slices well under the limits.
+ *
+ * Usage:
+ * <pre>
+ * long rows = new LogsExporter(logsQueryClient, workspaceId)
+ *     .setSliceDuration(Duration.ofHours(1))
+ *     .exportToFile("AppTraces", start, end, Paths.get("traces.lcol"));
+ * </pre>
+ */
+public class LogsExporter {
+
+    private static final Duration MIN_SPLIT = Duration.ofSeconds(1);
+    private static final int MAX_SPLIT_DEPTH = 10;
+    private static final int MAX_ROWS = 500_000;
+    /** Partial results are returned rather than thrown so an oversized slice can be split. */
+    private static final LogsQueryOptions QUERY_OPTIONS = new LogsQueryOptions().setAllowPartialErrors(true);
+    private static final int STAGED_BLOCK_BYTES = 4 * 1024 * 1024;
+
+    private final LogsQueryClient client;
+    private final String workspaceId;
+    private Duration sliceDuration = Duration.ofHours(1);
+    private int parallelism = 4;
+    private int blockRows = 8192;
+    private String timeColumn = "TimeGenerated";
+
+    public LogsExporter(LogsQueryClient client, String workspaceId) {
+        this.client = Objects.requireNonNull(client, "'client' cannot be null.");
+        this.workspaceId = Objects.requireNonNull(workspaceId, "'workspaceId' cannot be null.");
+    }
+
+    /**
+     * Sets the length of each time slice; smaller slices keep each query under service limits.
+     */
+    public LogsExporter setSliceDuration(Duration sliceDuration) {
+        if (sliceDuration.isNegative() || sliceDuration.isZero()) {
+            throw new IllegalArgumentException("'sliceDuration' must be positive.");
+        }
+        this.sliceDuration = sliceDuration;
+        return this;
+    }
+
+    /**
+     * Sets how many slices are fetched concurrently.
+     */
+    public LogsExporter setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("'parallelism' must be at least 1.");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets the number of rows per compressed block in the output file.
+     */
+    public LogsExporter setBlockRows(int blockRows) {
+        if (blockRows < 1) {
+            throw new IllegalArgumentException("'blockRows' must be at least 1.");
+        }
+        this.blockRows = blockRows;
+        return this;
+    }
+
+    /**
+     * Sets the datetime column used to cut the query into slices.
+     */
+    public LogsExporter setTimeColumn(String timeColumn) {
+        this.timeColumn = Objects.requireNonNull(timeColumn, "'timeColumn' cannot be null.");
+        return this;
+    }
+
+    /**
+     * Exports to a temporary file next to {@code file} and moves it into place once the export
+     * has succeeded, so a failed export never leaves a truncated file behind.
+     */
+    public long exportToFile(String query, OffsetDateTime start, OffsetDateTime end, Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            long rows;
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE)) {
+                rows = export(query, start, end, out);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            return rows;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Exports to a block blob, staging blocks as they fill rather than buffering the whole file.
+     * The block list is committed only once the export has succeeded, so a failed export leaves
+     * any existing blob untouched.
+     */
+    public long exportToBlob(String query, OffsetDateTime start, OffsetDateTime end, BlobClient blobClient)
+        throws IOException {
+        BlockStagingOutputStream out = new BlockStagingOutputStream(blobClient.getBlockBlobClient());
+        long rows = export(query, start, end, out);
+        out.commit();
+        return rows;
+    }
+
+    /**
+     * Runs the export and returns the number of rows written. {@code out} is not closed.
+     */
+    public long export(String query, OffsetDateTime start, OffsetDateTime end, OutputStream out) throws IOException {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("'end' must be after 'start'.");
+        }
+
+        List<OffsetDateTime[]> slices = new ArrayList<>();
+        for (OffsetDateTime sliceStart = start; sliceStart.isBefore(end); sliceStart = sliceStart.plus(sliceDuration)) {
+            OffsetDateTime sliceEnd = sliceStart.plus(sliceDuration);
+            slices.add(new OffsetDateTime[] { sliceStart, sliceEnd.isAfter(end) ? end : sliceEnd });
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, slices.size()), runnable -> {
+            Thread thread = new Thread(runnable, "logs-export-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        LogsColumnarWriter writer = null;
+        List<String> columnNames = null;
+        Deque<Slice> window = new ArrayDeque<>();
+        int nextSlice = 0;
+        try {
+            while (!window.isEmpty() || nextSlice < slices.size()) {
+                while (nextSlice < slices.size() && window.size() < parallelism) {
+                    OffsetDateTime[] next = slices.get(nextSlice++);
+                    window.add(submit(executor, query, next[0], next[1], 0));
+                }
+
+                Slice slice = window.poll();
+                LogsQueryResult result = await(slice.result);
+                if (LogsQueryResultStatus.PARTIAL_FAILURE.equals(result.getStatus()) && hitLimits(result)) {
+                    Duration length = Duration.between(slice.start, slice.end);
+                    if (slice.depth >= MAX_SPLIT_DEPTH || length.compareTo(MIN_SPLIT) <= 0) {
+                        throw new IllegalStateException("Slice " + format(slice.start) + " - " + format(slice.end)
+                            + " still exceeds the service's query limits: " + describe(result));
+                    }
+                    // Query the halves in the slice's place so output stays in time order
+                    OffsetDateTime middle = slice.start.plus(length.dividedBy(2));
+                    window.addFirst(submit(executor, query, middle, slice.end, slice.depth + 1));
+                    window.addFirst(submit(executor, query, slice.start, middle, slice.depth + 1));
+                    continue;
+                }
+                if (!LogsQueryResultStatus.SUCCESS.equals(result.getStatus())) {
+                    throw new IllegalStateException("Query failed for slice " + format(slice.start) + " - "
+                        + format(slice.end) + ": " + describe(result));
+                }
+                if (result.getAllTables().isEmpty()) {
+                    continue;
+                }
+
+                LogsTable table = result.getAllTables().get(0);
+                List<String> names = new ArrayList<>();
+                List<String> types = new ArrayList<>();
+                for (LogsTableColumn column : table.getColumns()) {
+                    names.add(column.getColumnName());
+                    types.add(String.valueOf(column.getColumnType()));
+                }
+                if (writer == null) {
+                    writer = new LogsColumnarWriter(new NonClosingOutputStream(out), names, types, blockRows);
+                    columnNames = names;
+                } else if (!columnNames.equals(names)) {
+                    throw new IllegalStateException("Query returned different columns for different time slices: "
+                        + columnNames + " vs " + names);
+                }
+
+                String[] values = new String[names.size()];
+                for (LogsTableRow row : table.getRows()) {
+                    List<LogsTableCell> cells = row.getRow();
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = cells.get(i).getValueAsString();
+                    }
+                    writer.writeRow(values);
+                }
+            }
+
+            if (writer == null) {
+                // No slice returned a table; still produce a valid, empty file
+                writer = new LogsColumnarWriter(new NonClosingOutputStream(out), List.of(), List.of(), blockRows);
+            }
+            writer.close();
+            return writer.getRowCount();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Slice submit(ExecutorService executor, String query, OffsetDateTime start, OffsetDateTime end,
+                         int depth) {
+        String sliceQuery = query + "\n| where " + timeColumn + " >= datetime(" + format(start) + ") and "
+            + timeColumn + " < datetime(" + format(end) + ")";
+        Future<LogsQueryResult> result = executor.submit(() -> client.queryWorkspaceWithResponse(workspaceId,
+            sliceQuery, new LogsQueryTimeInterval(start, end), QUERY_OPTIONS, Context.NONE).getValue());
+        return new Slice(start, end, depth, result);
+    }
+
+    /**
+     * Returns whether a partial result was cut short by the service's row or size limit, which
+     * splitting the slice can fix. Other partial failures (e.g. a failing function) can't be split away.
+     */
+    private static boolean hitLimits(LogsQueryResult result) {
+        List<LogsTable> tables = result.getAllTables();
+        if (tables != null && !tables.isEmpty() && tables.get(0).getRows().size() >= MAX_ROWS) {
+            return true;
+        }
+        ResponseError error = result.getError();
+        if (error == null) {
+            return false;
+        }
+        String text = (error.getCode() + " " + error.getMessage()).toLowerCase(Locale.ROOT);
+        return text.contains("e_query_result_set_too_large") || text.contains("result set has exceeded");
+    }
+
+    private static String describe(LogsQueryResult result) {
+        ResponseError error = result.getError();
+        return error == null ? String.valueOf(result.getStatus()) : error.getCode() + ": " + error.getMessage();
+    }
+
+    private static LogsQueryResult await(Future<LogsQueryResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while exporting logs", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Failed to query log slice", e.getCause());
+        }
+    }
+
+    private static String format(OffsetDateTime time) {
+        return DateTimeFormatter.ISO_INSTANT.format(time.toInstant());
+    }
+
+    /**
+     * One time slice in the export window, with its query in flight.
+     */
+    private static final class Slice {
+        private final OffsetDateTime start;
+        private final OffsetDateTime end;
+        private final int depth;
+        private final Future<LogsQueryResult> result;
+
+        private Slice(OffsetDateTime start, OffsetDateTime end, int depth, Future<LogsQueryResult> result) {
+            this.start = start;
+            this.end = end;
+            this.depth = depth;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Stages fixed-size blocks on a block blob and commits the block list only when asked, so a
+     * failed export never replaces the target blob. Uncommitted blocks are discarded by the service.
+     */
+    private static final class BlockStagingOutputStream extends OutputStream {
+        private final BlockBlobClient blob;
+        private final String exportId = UUID.randomUUID().toString();
+        private final List<String> blockIds = new ArrayList<>();
+        private final byte[] buffer = new byte[STAGED_BLOCK_BYTES];
+        private int count;
+
+        BlockStagingOutputStream(BlockBlobClient blob) {
+            this.blob = blob;
+        }
+
+        @Override
+        public void write(int b) {
+            if (count == buffer.length) {
+                stageBlock();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (len > 0) {
+                if (count == buffer.length) {
+                    stageBlock();
+                }
+                int chunk = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, chunk);
+                count += chunk;
+                off += chunk;
+                len -= chunk;
+            }
+        }
+
+        void commit() {
+            if (count > 0) {
+                stageBlock();
+            }
+            blob.commitBlockList(blockIds, true);
+        }
+
+        private void stageBlock() {
+            // Block ids must all have the same length; the export id keeps concurrent exports apart
+            String blockId = Base64.getEncoder().encodeToString(
+                String.format("%s-%06d", exportId, blockIds.size()).getBytes(StandardCharsets.UTF_8));
+            blob.stageBlock(blockId, new ByteArrayInputStream(buffer, 0, count), count);
+            blockIds.add(blockId);
+            count = 0;
+        }
+    }
+
+    /**
+     * Lets the writer finish the file without closing the caller's stream.
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
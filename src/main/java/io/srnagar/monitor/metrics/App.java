@@ -1,11 +1,12 @@
 package io.srnagar.monitor.metrics;
 
-import com.azure.identity.DefaultAzureCredentialBuilder;
 import com.azure.monitor.query.metrics.MetricsClient;
 import com.azure.monitor.query.metrics.MetricsClientBuilder;
 import com.azure.monitor.query.metrics.models.MetricsQueryResult;
 import com.azure.monitor.query.metrics.models.MetricsQueryResourcesResult;
 import com.azure.monitor.query.metrics.models.MetricValue;
+import io.srnagar.faststart.FastStart;
+import io.srnagar.resilience.Resilience;
 
 import java.time.OffsetDateTime;
 import java.util.Arrays;
@@ -19,6 +20,8 @@ import java.util.Collections;
  * - Querying memory metrics
  * - Querying storage metrics
  * - Processing metric values and time series data
+ * - Retries and circuit breaking via the shared resilience layer
+ * - The shared fast-start credential, resolved on the first token request
  * 
  * To run this sample:
  * 1. Set the AZURE_RESOURCE_URI environment variable to your Azure resource URI
@@ -40,9 +43,12 @@ public class App {
         }
         
         try {
-            // Create MetricsClient using DefaultAzureCredential
+            // Create MetricsClient with the fast-start credential
             MetricsClient metricsClient = new MetricsClientBuilder()
-                .credential(new DefaultAzureCredentialBuilder().build())
+                .credential(FastStart.credential())
+                .addPolicy(FastStart.startupProbe())
+                .addPolicy(Resilience.getDefault().getPolicy())
+                .retryOptions(Resilience.sdkRetriesDisabled())
                 .buildClient();
             
             System.out.println("\\n📈 Executing sample metric queries...");
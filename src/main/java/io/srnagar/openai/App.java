@@ -10,10 +10,13 @@ import com.azure.ai.openai.models.ChatRequestSystemMessage;
 import com.azure.ai.openai.models.Completions;
 import com.azure.ai.openai.models.CompletionsOptions;
 import com.azure.core.credential.AzureKeyCredential;
-import com.azure.identity.DefaultAzureCredentialBuilder;
+import io.srnagar.faststart.FastStart;
+import io.srnagar.resilience.Resilience;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Standalone Azure OpenAI sample application
@@ -21,7 +24,10 @@ import java.util.List;
  * This sample demonstrates:
  * - Text completions using Azure OpenAI
  * - Chat completions with system and user messages
+ * - Concurrent multi-turn conversations sharing one serialized system prompt
  * - Authentication using both API key and DefaultAzureCredential
+ * - Retries and circuit breaking via the shared resilience layer
+ * - Lazily resolved fast-start credential when no API key is set
  * 
  * To run this sample:
  * 1. Set environment variables:
@@ -67,6 +73,10 @@ public class App {
             System.out.println("\\n🎭 Demo 3: Chat with System Message");
             demonstrateSystemChat(client, deploymentName);
             
+            // Demo 4: Concurrent conversations
+            System.out.println("\\n🧵 Demo 4: Concurrent Conversations");
+            demonstrateConcurrentConversations(client, deploymentName);
+            
             System.out.println("\\n🎉 Azure OpenAI sample completed successfully!");
             
         } catch (Exception e) {
@@ -82,14 +92,19 @@ public class App {
     }
     
     private static OpenAIClient createOpenAIClient(String endpoint, String apiKey) {
-        OpenAIClientBuilder builder = new OpenAIClientBuilder().endpoint(endpoint);
+        OpenAIClientBuilder builder = new OpenAIClientBuilder()
+            .endpoint(endpoint)
+            .addPolicy(FastStart.startupProbe())
+            .addPolicy(Resilience.getDefault().getPolicy())
+            .retryOptions(Resilience.sdkRetriesDisabled());
         
         if (apiKey != null && !apiKey.isEmpty()) {
             System.out.println("   Using API key authentication");
             return builder.credential(new AzureKeyCredential(apiKey)).buildClient();
         } else {
-            System.out.println("   Using DefaultAzureCredential authentication");
-            return builder.credential(new DefaultAzureCredentialBuilder().build()).buildClient();
+            // Resolved on first token request; skips the DefaultAzureCredential chain if an explicit credential is configured
+            System.out.println("   Using Azure token credential authentication");
+            return builder.credential(FastStart.credential()).buildClient();
         }
     }
     
@@ -158,4 +173,28 @@ public class App {
             System.out.println("   ⚠️  System chat failed: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    private static void demonstrateConcurrentConversations(OpenAIClient client, String deploymentName) {
+        String systemPrompt = "You are a helpful Azure expert assistant. Provide concise and accurate information about Azure services.";
+        List<String> services = Arrays.asList("Azure Storage", "Azure Monitor", "Azure OpenAI");
+        
+        // All conversations share one serialized copy of the system prompt; at most 4 turns are in flight at once
+        try (ConversationEngine engine = new ConversationEngine(client, deploymentName, 4, 4096, 200)) {
+            List<CompletableFuture<String>> replies = new ArrayList<>();
+            for (String service : services) {
+                ConversationEngine.Conversation conversation = engine.startConversation(systemPrompt);
+                conversation.send("What is " + service + " used for?");
+                replies.add(conversation.send("Summarize that in one sentence."));
+            }
+            
+            for (int i = 0; i < services.size(); i++) {
+                try {
+                    System.out.println("   " + services.get(i) + ": " + replies.get(i).join());
+                } catch (Exception e) {
+                    System.out.println("   ⚠️  Conversation about " + services.get(i) + " failed: " + e.getMessage());
+                }
+            }
+            System.out.println("   Interned system prompts: " + engine.getInternedPromptCount());
+        }
+    }
+}
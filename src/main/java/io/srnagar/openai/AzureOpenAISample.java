@@ -1,8 +1,7 @@
 package io.srnagar.openai;
 
+import com.azure.core.credential.TokenCredential;
 import com.azure.identity.AuthenticationUtil;
-import com.azure.identity.DefaultAzureCredential;
-import com.azure.identity.DefaultAzureCredentialBuilder;
 import com.openai.client.OpenAIClient;
 import com.openai.client.okhttp.OpenAIOkHttpClient;
 import com.openai.credential.BearerTokenCredential;
@@ -14,13 +13,18 @@ import com.openai.models.embeddings.EmbeddingCreateParams;
 import com.openai.models.embeddings.EmbeddingModel;
 import com.openai.models.responses.Response;
 import com.openai.models.responses.ResponseCreateParams;
+import io.srnagar.faststart.FastStart;
 
 import java.util.function.Supplier;
 
+/**
+ * openai-java (OkHttp) client sample. This client has no pipeline policy or interceptor hook, so
+ * unlike the Azure SDK samples it is not behind {@code io.srnagar.resilience} and uses its own retries.
+ */
 public class AzureOpenAISample {
 
     public static void main(String[] args) {
-        DefaultAzureCredential tokenCredential = new DefaultAzureCredentialBuilder().build();
+        TokenCredential tokenCredential = FastStart.credential();
         Supplier<String> bearerTokenSupplier = AuthenticationUtil.getBearerTokenSupplier(
                 tokenCredential, "https://cognitiveservices.azure.com/.default");
         OpenAIClient client = OpenAIOkHttpClient.builder()
@@ -0,0 +1,149 @@
+package io.srnagar.openai;
+
+import com.azure.ai.openai.models.ChatCompletionsOptions;
+import com.azure.ai.openai.models.ChatRequestAssistantMessage;
+import com.azure.ai.openai.models.ChatRequestMessage;
+import com.azure.ai.openai.models.ChatRequestSystemMessage;
+import com.azure.ai.openai.models.ChatRequestUserMessage;
+import com.azure.json.JsonProviders;
+import com.azure.json.JsonWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Request-building benchmark for {@link ConversationEngine}; sends nothing over the network.
+ *
+ * Compares, per turn, the cost and size of the request body built by:
+ * - Untrimmed: a fresh {@code List<ChatRequestMessage>} holding the full history, serialized
+ *   through {@link ChatCompletionsOptions} every turn (how the samples build chat requests)
+ * - Baseline: the same, but trimmed to the token budget with the engine's rule and token counts
+ * - Engine: interned system prompt plus pre-serialized history, trimmed to the token budget
+ *
+ * Baseline and Engine send the same messages, so their sizes match and the time difference is
+ * serialization alone; reusing serialized messages saves CPU, not bytes. The size difference
+ * against Untrimmed comes entirely from trimming. Replies are synthetic, so every path sees the
+ * same conversation.
+ *
+ * To run this benchmark:
+ * java -cp ... io.srnagar.openai.ConversationBenchmark [conversations] [turns]
+ */
+public class ConversationBenchmark {
+
+    private static final String SYSTEM_PROMPT = "You are a helpful Azure expert assistant. Provide concise and "
+        + "accurate information about Azure services, and include a short example when it helps.";
+    private static final String REPLY = "Azure Monitor collects, analyzes and acts on telemetry from cloud and "
+        + "on-premises environments. It stores metrics and logs, powers alerts, dashboards and workbooks, and "
+        + "integrates with Application Insights for application performance monitoring. ";
+    private static final int TOKEN_BUDGET = 4096;
+    private static final int MAX_RESPONSE_TOKENS = 200;
+
+    public static void main(String[] args) throws IOException {
+        int conversations = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int turns = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+
+        System.out.println("=== Conversation Request Benchmark (" + conversations + " conversations x "
+            + turns + " turns) ===");
+
+        // Warm up every path so the measured runs are JIT-compiled
+        runBaseline(Math.max(1, conversations / 10), turns, false);
+        runBaseline(Math.max(1, conversations / 10), turns, true);
+        runEngine(Math.max(1, conversations / 10), turns);
+
+        long[] untrimmed = runBaseline(conversations, turns, false);
+        long[] baseline = runBaseline(conversations, turns, true);
+        long[] engine = runEngine(conversations, turns);
+        long totalTurns = (long) conversations * turns;
+
+        System.out.printf("%-10s %14s %16s%n", "Path", "ns/turn", "avg bytes/turn");
+        System.out.printf("%-10s %14d %16d%n", "Untrimmed", untrimmed[0] / totalTurns, untrimmed[1] / totalTurns);
+        System.out.printf("%-10s %14d %16d%n", "Baseline", baseline[0] / totalTurns, baseline[1] / totalTurns);
+        System.out.printf("%-10s %14d %16d%n", "Engine", engine[0] / totalTurns, engine[1] / totalTurns);
+    }
+
+    /**
+     * Returns {elapsed nanos, total request bytes}.
+     */
+    private static long[] runBaseline(int conversations, int turns, boolean trim) throws IOException {
+        List<Deque<ChatRequestMessage>> histories = new ArrayList<>();
+        List<Deque<Integer>> historyTokens = new ArrayList<>();
+        int[] totals = new int[conversations];
+        for (int c = 0; c < conversations; c++) {
+            histories.add(new ArrayDeque<>());
+            historyTokens.add(new ArrayDeque<>());
+        }
+        int systemTokens = TokenCounter.countMessage(SYSTEM_PROMPT);
+        int replyTokens = TokenCounter.countMessage(REPLY);
+        int promptBudget = TOKEN_BUDGET - MAX_RESPONSE_TOKENS;
+
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int turn = 0; turn < turns; turn++) {
+            for (int c = 0; c < conversations; c++) {
+                Deque<ChatRequestMessage> history = histories.get(c);
+                Deque<Integer> tokens = historyTokens.get(c);
+                String userMessage = userMessage(c, turn);
+                history.addLast(new ChatRequestUserMessage(userMessage));
+                tokens.addLast(TokenCounter.countMessage(userMessage));
+                totals[c] += tokens.peekLast();
+
+                // Same rule as the engine: drop the oldest until the prompt fits, then any leading reply
+                while (trim && history.size() > 1
+                    && (systemTokens + totals[c] > promptBudget
+                        || history.peekFirst() instanceof ChatRequestAssistantMessage)) {
+                    history.removeFirst();
+                    totals[c] -= tokens.removeFirst();
+                }
+
+                List<ChatRequestMessage> messages = new ArrayList<>(history.size() + 1);
+                messages.add(new ChatRequestSystemMessage(SYSTEM_PROMPT));
+                messages.addAll(history);
+                ChatCompletionsOptions options = new ChatCompletionsOptions(messages)
+                    .setMaxTokens(MAX_RESPONSE_TOKENS)
+                    .setTemperature(0.7);
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                try (JsonWriter writer = JsonProviders.createWriter(out)) {
+                    options.toJson(writer);
+                }
+                bytes += out.size();
+
+                history.addLast(new ChatRequestAssistantMessage(REPLY));
+                tokens.addLast(replyTokens);
+                totals[c] += replyTokens;
+            }
+        }
+        return new long[] { System.nanoTime() - start, bytes };
+    }
+
+    private static long[] runEngine(int conversations, int turns) {
+        try (ConversationEngine engine = new ConversationEngine(null, "benchmark", 1, TOKEN_BUDGET,
+            MAX_RESPONSE_TOKENS)) {
+            List<ConversationEngine.Conversation> active = new ArrayList<>();
+            for (int c = 0; c < conversations; c++) {
+                active.add(engine.startConversation(SYSTEM_PROMPT));
+            }
+
+            long bytes = 0;
+            long start = System.nanoTime();
+            for (int turn = 0; turn < turns; turn++) {
+                for (int c = 0; c < conversations; c++) {
+                    ConversationEngine.Conversation conversation = active.get(c);
+                    ConversationEngine.Turn prepared = engine.prepareTurn(conversation, userMessage(c, turn));
+                    bytes += prepared.body.length;
+                    engine.completeTurn(conversation, prepared, REPLY);
+                }
+            }
+            return new long[] { System.nanoTime() - start, bytes };
+        }
+    }
+
+    private static String userMessage(int conversation, int turn) {
+        return "Question " + turn + " from session " + conversation
+            + ": how do I configure diagnostic settings for a storage account?";
+    }
+}
@@ -0,0 +1,280 @@
+package io.srnagar.openai;
+
+import com.azure.ai.openai.OpenAIClient;
+import com.azure.ai.openai.models.ChatChoice;
+import com.azure.ai.openai.models.ChatCompletions;
+import com.azure.ai.openai.models.ChatRequestAssistantMessage;
+import com.azure.ai.openai.models.ChatRequestSystemMessage;
+import com.azure.ai.openai.models.ChatRequestUserMessage;
+import com.azure.core.http.rest.RequestOptions;
+import com.azure.core.util.BinaryData;
+import com.azure.json.JsonProviders;
+import com.azure.json.JsonSerializable;
+import com.azure.json.JsonWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many chat conversations concurrently against one deployment.
+ *
+ * Request bodies are assembled from pre-serialized JSON rather than rebuilt per turn:
+ * - System prompts are interned; conversations sharing a prompt share one serialized copy
+ * - Each user and assistant message is serialized once, when it joins the history
+ * - History is trimmed oldest-first to fit the token budget, using a running token count
+ * - A turn joins the history only once its reply has arrived, so failed turns leave no trace
+ *
+ * Turns of one conversation run in order; turns across conversations run in parallel, at most
+ * {@code maxConcurrentTurns} at a time.
+ *
+ * Usage:
+ * <pre>
+ * try (ConversationEngine engine = new ConversationEngine(client, deploymentName, 16, 4096, 200)) {
+ *     ConversationEngine.Conversation conversation = engine.startConversation("You are a helpful assistant.");
+ *     String reply = conversation.send("Hello!").join();
+ * }
+ * </pre>
+ */
+public class ConversationEngine implements AutoCloseable {
+
+    private static final byte[] REQUEST_HEAD = "{\"messages\":[".getBytes(StandardCharsets.UTF_8);
+
+    private final OpenAIClient client;
+    private final String deploymentName;
+    private final int tokenBudget;
+    private final int maxResponseTokens;
+    private final byte[] requestTail;
+    private final ConcurrentHashMap<String, Message> systemPrompts = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    /**
+     * @param maxConcurrentTurns how many requests may be in flight at once across all conversations
+     * @param tokenBudget the context window to stay within, including {@code maxResponseTokens}
+     * @param maxResponseTokens the {@code max_tokens} sent with every request; temperature is fixed at 0.7
+     */
+    public ConversationEngine(OpenAIClient client, String deploymentName, int maxConcurrentTurns, int tokenBudget,
+                              int maxResponseTokens) {
+        if (maxConcurrentTurns < 1) {
+            throw new IllegalArgumentException("'maxConcurrentTurns' must be at least 1.");
+        }
+        if (maxResponseTokens < 1 || tokenBudget <= maxResponseTokens) {
+            throw new IllegalArgumentException("'tokenBudget' must leave room for 'maxResponseTokens'.");
+        }
+        this.client = client;
+        this.deploymentName = deploymentName;
+        this.tokenBudget = tokenBudget;
+        this.maxResponseTokens = maxResponseTokens;
+        this.requestTail = ("],\"max_tokens\":" + maxResponseTokens + ",\"temperature\":0.7}")
+            .getBytes(StandardCharsets.UTF_8);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrentTurns, runnable -> {
+            Thread thread = new Thread(runnable, "conversation-turn-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a conversation. The system prompt is serialized once per distinct prompt text.
+     */
+    public Conversation startConversation(String systemPrompt) {
+        Message prefix = systemPrompts.computeIfAbsent(systemPrompt,
+            prompt -> Message.of(new ChatRequestSystemMessage(prompt), prompt));
+        if (prefix.tokens + maxResponseTokens > tokenBudget) {
+            throw new IllegalArgumentException("System prompt alone exceeds the token budget.");
+        }
+        return new Conversation(prefix);
+    }
+
+    /**
+     * Returns the number of distinct system prompts held.
+     */
+    public int getInternedPromptCount() {
+        return systemPrompts.size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Builds the request body for a turn: the system prompt, as much recent history as fits the
+     * budget and the new user message. The history itself is left unchanged until
+     * {@link #completeTurn} records the reply.
+     */
+    Turn prepareTurn(Conversation conversation, String userMessage) {
+        Message user = Message.of(new ChatRequestUserMessage(userMessage), userMessage);
+        int promptBudget = tokenBudget - maxResponseTokens;
+        if (conversation.prefix.tokens + user.tokens > promptBudget) {
+            throw new IllegalArgumentException("Message does not fit in the token budget even without history.");
+        }
+
+        // Skip the oldest messages until the prompt fits, then any assistant reply that would lead
+        int tokens = conversation.prefix.tokens + conversation.historyTokens + user.tokens;
+        int dropped = 0;
+        for (Message message : conversation.history) {
+            if (tokens <= promptBudget && !message.assistant) {
+                break;
+            }
+            tokens -= message.tokens;
+            dropped++;
+        }
+
+        int size = REQUEST_HEAD.length + conversation.prefix.json.length + 1 + user.json.length + requestTail.length;
+        int index = 0;
+        for (Message message : conversation.history) {
+            if (index++ >= dropped) {
+                size += 1 + message.json.length;
+            }
+        }
+
+        byte[] body = new byte[size];
+        int offset = put(body, 0, REQUEST_HEAD);
+        offset = put(body, offset, conversation.prefix.json);
+        index = 0;
+        for (Message message : conversation.history) {
+            if (index++ >= dropped) {
+                body[offset++] = ',';
+                offset = put(body, offset, message.json);
+            }
+        }
+        body[offset++] = ',';
+        offset = put(body, offset, user.json);
+        put(body, offset, requestTail);
+        return new Turn(body, user, dropped);
+    }
+
+    /**
+     * Commits a turn that got a reply: drops the history the request left out and appends the
+     * user message and the assistant reply.
+     */
+    void completeTurn(Conversation conversation, Turn turn, String reply) {
+        conversation.commit(turn, Message.of(new ChatRequestAssistantMessage(reply), reply));
+    }
+
+    private String runTurn(Conversation conversation, String userMessage) {
+        Turn turn = prepareTurn(conversation, userMessage);
+        BinaryData response = client.getChatCompletionsWithResponse(deploymentName, BinaryData.fromBytes(turn.body),
+            new RequestOptions()).getValue();
+
+        ChatCompletions completions;
+        try {
+            completions = ChatCompletions.fromJson(JsonProviders.createReader(response.toBytes()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not parse chat completions response", e);
+        }
+        if (completions.getChoices().isEmpty()) {
+            throw new IllegalStateException("Chat completions response contained no choices");
+        }
+        ChatChoice choice = completions.getChoices().get(0);
+        String reply = choice.getMessage().getContent();
+        completeTurn(conversation, turn, reply == null ? "" : reply);
+        return reply;
+    }
+
+    private static int put(byte[] target, int offset, byte[] source) {
+        System.arraycopy(source, 0, target, offset, source.length);
+        return offset + source.length;
+    }
+
+    /**
+     * One conversation: a shared system prompt plus its own trimmed history.
+     */
+    public final class Conversation {
+        private final Message prefix;
+        private final Deque<Message> history = new ArrayDeque<>();
+        private volatile int historyTokens;
+        private CompletableFuture<String> lastTurn = CompletableFuture.completedFuture(null);
+
+        private Conversation(Message prefix) {
+            this.prefix = prefix;
+        }
+
+        /**
+         * Queues a user message and completes with the assistant's reply. Turns are sent in the
+         * order they are queued, each after the previous reply has arrived.
+         *
+         * A failed turn leaves the history as it was before that turn. Turns already queued behind
+         * it fail with the same error rather than run without the reply they followed up on; a
+         * message sent after the failure has completed starts a new turn normally.
+         */
+        public synchronized CompletableFuture<String> send(String userMessage) {
+            CompletableFuture<String> previous = lastTurn;
+            if (previous.isCompletedExceptionally()) {
+                previous = CompletableFuture.completedFuture(null);
+            }
+            lastTurn = previous.thenApplyAsync(ignored -> runTurn(this, userMessage), executor);
+            return lastTurn;
+        }
+
+        /**
+         * Returns the estimated prompt tokens of the history currently kept, excluding the system prompt.
+         */
+        public int getHistoryTokens() {
+            return historyTokens;
+        }
+
+        private void commit(Turn turn, Message reply) {
+            int tokens = historyTokens;
+            for (int i = 0; i < turn.dropped; i++) {
+                tokens -= history.removeFirst().tokens;
+            }
+            history.addLast(turn.user);
+            history.addLast(reply);
+            historyTokens = tokens + turn.user.tokens + reply.tokens;
+        }
+    }
+
+    /**
+     * One prepared request: its body, the user message it adds and how many of the oldest history
+     * messages it left out.
+     */
+    static final class Turn {
+        final byte[] body;
+        private final Message user;
+        private final int dropped;
+
+        private Turn(byte[] body, Message user, int dropped) {
+            this.body = body;
+            this.user = user;
+            this.dropped = dropped;
+        }
+    }
+
+    /**
+     * A chat message serialized once, with its token estimate.
+     */
+    private static final class Message {
+        private final byte[] json;
+        private final int tokens;
+        private final boolean assistant;
+
+        private Message(byte[] json, int tokens, boolean assistant) {
+            this.json = json;
+            this.tokens = tokens;
+            this.assistant = assistant;
+        }
+
+        static Message of(JsonSerializable<?> message, String content) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(content.length() + 32);
+            try (JsonWriter writer = JsonProviders.createWriter(out)) {
+                message.toJson(writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not serialize chat message", e);
+            }
+            return new Message(out.toByteArray(), TokenCounter.countMessage(content),
+                message instanceof ChatRequestAssistantMessage);
+        }
+    }
+}
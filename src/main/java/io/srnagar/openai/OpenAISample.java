@@ -11,6 +11,10 @@ import com.openai.models.embeddings.EmbeddingModel;
 import com.openai.models.responses.Response;
 import com.openai.models.responses.ResponseCreateParams;
 
+/**
+ * openai-java (OkHttp) client sample. This client has no pipeline policy or interceptor hook, so
+ * unlike the Azure SDK samples it is not behind {@code io.srnagar.resilience} and uses its own retries.
+ */
 public class OpenAISample {
 
     public static void main(String[] args) {
@@ -0,0 +1,39 @@
+package io.srnagar.openai;
+
+/**
+ * Cheap, allocation-free token estimate for chat messages.
+ *
+ * Runs of letters or digits count as one token per four characters (rounded up), every other
+ * non-whitespace character counts as one token, and each message adds a fixed overhead for its
+ * role and framing. This tracks BPE tokenizers closely enough to keep requests under a budget
+ * without shipping a tokenizer; leave some headroom in the budget for the difference.
+ */
+final class TokenCounter {
+
+    static final int MESSAGE_OVERHEAD = 4;
+
+    private TokenCounter() {
+    }
+
+    static int countMessage(String content) {
+        return MESSAGE_OVERHEAD + count(content);
+    }
+
+    static int count(String text) {
+        int tokens = 0;
+        int word = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word++;
+                continue;
+            }
+            tokens += (word + 3) / 4;
+            word = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + (word + 3) / 4;
+    }
+}
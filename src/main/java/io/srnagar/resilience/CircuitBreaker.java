@@ -0,0 +1,85 @@
+package io.srnagar.resilience;
+
+import java.time.Duration;
+
+/**
+ * Consecutive-failure circuit breaker for a single endpoint.
+ *
+ * CLOSED lets everything through. After {@code failureThreshold} consecutive failures the
+ * breaker goes OPEN and rejects calls until {@code openDuration} has elapsed, then HALF_OPEN
+ * admits exactly one probe: success closes the circuit, failure re-opens it. A probe that is
+ * abandoned (cancelled) or that reports nothing within {@code openDuration} hands the probe
+ * slot to the next caller, so a lost probe can't hold the circuit half-open forever.
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long probeStartedAt;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                // Cool-down elapsed; this caller becomes the single probe
+                state = State.HALF_OPEN;
+                probeStartedAt = System.nanoTime();
+                return true;
+            default:
+                if (System.nanoTime() - probeStartedAt < openNanos) {
+                    // A probe is already in flight
+                    return false;
+                }
+                // The probe never reported back; let this caller probe instead
+                probeStartedAt = System.nanoTime();
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records a call that ended without an outcome (cancelled, or failed with an {@link Error}).
+     * If a probe was in flight the next caller may probe straight away; otherwise nothing changes.
+     */
+    synchronized void onAbandoned() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+            openedAt = System.nanoTime() - openNanos;
+        }
+    }
+
+    /**
+     * Returns whether a failed call may be retried; once the circuit has opened the caller gets
+     * the last real failure instead of a retry that would only be short-circuited.
+     */
+    synchronized boolean allowsRetry() {
+        return state == State.CLOSED;
+    }
+}
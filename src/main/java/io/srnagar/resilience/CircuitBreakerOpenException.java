@@ -0,0 +1,22 @@
+package io.srnagar.resilience;
+
+import com.azure.core.exception.AzureException;
+
+/**
+ * Thrown when a request is short-circuited because its endpoint's circuit breaker is open.
+ */
+public class CircuitBreakerOpenException extends AzureException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String endpoint;
+
+    public CircuitBreakerOpenException(String endpoint) {
+        super("Circuit breaker is open for endpoint " + endpoint + "; request was not sent.");
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,37 @@
+package io.srnagar.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size window of recent call latencies used to pick the hedging delay.
+ */
+class LatencyTracker {
+
+    private static final int WINDOW = 128;
+    private static final int MIN_SAMPLES = 16;
+
+    private final long[] samples = new long[WINDOW];
+    private int count;
+    private int next;
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % WINDOW;
+        if (count < WINDOW) {
+            count++;
+        }
+    }
+
+    /**
+     * Returns the given latency percentile in nanoseconds, or {@code -1} until enough samples exist.
+     */
+    synchronized long percentile(double percentile) {
+        if (count < MIN_SAMPLES) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+}
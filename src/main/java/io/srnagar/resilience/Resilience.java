@@ -0,0 +1,178 @@
+package io.srnagar.resilience;
+
+import com.azure.core.http.policy.FixedDelayOptions;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import com.azure.core.http.policy.RetryOptions;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Shared resilience layer for all samples.
+ *
+ * Usage:
+ * <pre>
+ * Resilience resilience = Resilience.getDefault();
+ * BlobServiceClient client = new BlobServiceClientBuilder()
+ *     .addPolicy(resilience.getPolicy())
+ *     ...
+ *     .buildClient();
+ *
+ * // Idempotent reads can additionally be hedged
+ * BinaryData content = resilience.hedge(() -> blobClient.downloadContent());
+ * </pre>
+ *
+ * Retries and hedges draw from the same budget, so neither can amplify load on an overloaded
+ * service beyond {@link ResilienceOptions#getRetryBudgetRatio()}.
+ */
+public final class Resilience {
+
+    private static final Resilience DEFAULT = new Resilience(new ResilienceOptions());
+    /** Set while a hedged duplicate runs, so {@link ResiliencePolicy} doesn't count it as new traffic. */
+    private static final ThreadLocal<Boolean> HEDGE_DUPLICATE = new ThreadLocal<>();
+
+    private final ResilienceOptions options;
+    private final RetryBudget budget;
+    private final ResiliencePolicy policy;
+    private final LatencyTracker latencies = new LatencyTracker();
+    private final ExecutorService hedgeExecutor;
+
+    public Resilience(ResilienceOptions options) {
+        this.options = options;
+        this.budget = new RetryBudget(options.getRetryBudgetRatio(), options.getRetryBudgetReserve());
+        this.policy = new ResiliencePolicy(options, budget);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hedgeExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "resilience-hedge-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the process-wide instance shared by the samples, using default options.
+     */
+    public static Resilience getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the pipeline policy to register on a client builder via {@code addPolicy}.
+     */
+    public HttpPipelinePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns retry options that switch off the SDK's built-in retries for azure-core based
+     * builders, leaving retry decisions to {@link #getPolicy()}.
+     */
+    public static RetryOptions sdkRetriesDisabled() {
+        return new RetryOptions(new FixedDelayOptions(0, Duration.ofMillis(1)));
+    }
+
+    /**
+     * Runs an idempotent read, sending a duplicate if the first attempt is slower than the
+     * recent p95 latency, and returns whichever succeeds first.
+     *
+     * The duplicate is only sent if the retry budget allows it; otherwise this simply waits for
+     * the first attempt. The first attempt is counted by {@link #getPolicy()} like any request;
+     * the duplicate is marked so the policy makes no deposit for it, and costs one withdrawal.
+     * Once one attempt wins, the other's thread is interrupted; blocking SDK calls abort on
+     * interrupt, so the losing download or query stops instead of running to completion.
+     * Never hedge calls with side effects.
+     */
+    public <T> T hedge(Supplier<T> read) {
+        ExecutorCompletionService<T> attempts = new ExecutorCompletionService<>(hedgeExecutor);
+        Future<T> primary = attempts.submit(timed(read));
+        Future<T> secondary = null;
+        try {
+            Future<T> first = attempts.poll(hedgeDelay().toNanos(), TimeUnit.NANOSECONDS);
+            if (first == null) {
+                if (!budget.tryAcquire()) {
+                    return get(primary);
+                }
+                secondary = attempts.submit(duplicate(timed(read)));
+                first = attempts.take();
+            }
+            try {
+                return first.get();
+            } catch (ExecutionException e) {
+                if (secondary == null) {
+                    throw unwrap(e.getCause());
+                }
+                // One attempt failed; the other may still succeed
+                return get(attempts.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for read", e);
+        } finally {
+            primary.cancel(true);
+            if (secondary != null) {
+                secondary.cancel(true);
+            }
+        }
+    }
+
+    private Duration hedgeDelay() {
+        long percentile = latencies.percentile(options.getHedgePercentile());
+        Duration floor = options.getMinHedgeDelay();
+        if (percentile < 0) {
+            // Not enough data yet; be patient rather than hedge every cold read
+            return floor.multipliedBy(10);
+        }
+        return Duration.ofNanos(Math.max(percentile, floor.toNanos()));
+    }
+
+    private <T> Callable<T> timed(Supplier<T> read) {
+        return () -> {
+            long start = System.nanoTime();
+            T value = read.get();
+            latencies.record(System.nanoTime() - start);
+            return value;
+        };
+    }
+
+    static boolean isHedgeDuplicate() {
+        return HEDGE_DUPLICATE.get() != null;
+    }
+
+    private static <T> Callable<T> duplicate(Callable<T> read) {
+        return () -> {
+            HEDGE_DUPLICATE.set(Boolean.TRUE);
+            try {
+                return read.call();
+            } finally {
+                HEDGE_DUPLICATE.remove();
+            }
+        };
+    }
+
+    private static <T> T get(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        if (error instanceof RuntimeException) {
+            return (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        return new IllegalStateException(error);
+    }
+}
@@ -0,0 +1,159 @@
+package io.srnagar.resilience;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Tunables for the shared resilience layer.
+ *
+ * The defaults are deliberately conservative:
+ * - Up to 3 retries with full-jitter exponential backoff (200ms base, 10s cap)
+ * - Retries capped at 10% of traffic, with a small reserve for low-volume callers
+ * - A circuit opens after 5 consecutive failures against the same endpoint and stays open for 30s
+ * - Hedged reads fire after the observed p95 latency, never sooner than 50ms
+ */
+public class ResilienceOptions {
+
+    private int maxRetries = 3;
+    private Duration baseDelay = Duration.ofMillis(200);
+    private Duration maxDelay = Duration.ofSeconds(10);
+    private double retryBudgetRatio = 0.1;
+    private int retryBudgetReserve = 10;
+    private int failureThreshold = 5;
+    private Duration openDuration = Duration.ofSeconds(30);
+    private Duration minHedgeDelay = Duration.ofMillis(50);
+    private double hedgePercentile = 0.95;
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Sets the maximum number of retries per request, not counting the initial attempt.
+     */
+    public ResilienceOptions setMaxRetries(int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("'maxRetries' cannot be negative.");
+        }
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    public Duration getBaseDelay() {
+        return baseDelay;
+    }
+
+    /**
+     * Sets the backoff delay before the first retry; each further retry doubles the ceiling.
+     */
+    public ResilienceOptions setBaseDelay(Duration baseDelay) {
+        this.baseDelay = requirePositive(baseDelay, "baseDelay");
+        return this;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Sets the longest the layer will wait before a retry. A {@code Retry-After} hint longer than
+     * this ends the retry loop and hands the throttled response back to the caller.
+     */
+    public ResilienceOptions setMaxDelay(Duration maxDelay) {
+        this.maxDelay = requirePositive(maxDelay, "maxDelay");
+        return this;
+    }
+
+    public double getRetryBudgetRatio() {
+        return retryBudgetRatio;
+    }
+
+    /**
+     * Sets the share of traffic that may be spent on retries and hedges, e.g. {@code 0.1} for 10%.
+     */
+    public ResilienceOptions setRetryBudgetRatio(double retryBudgetRatio) {
+        if (retryBudgetRatio < 0 || retryBudgetRatio > 1) {
+            throw new IllegalArgumentException("'retryBudgetRatio' must be between 0 and 1.");
+        }
+        this.retryBudgetRatio = retryBudgetRatio;
+        return this;
+    }
+
+    public int getRetryBudgetReserve() {
+        return retryBudgetReserve;
+    }
+
+    /**
+     * Sets how many retries the budget starts with and can bank, so low-traffic callers can still retry.
+     */
+    public ResilienceOptions setRetryBudgetReserve(int retryBudgetReserve) {
+        if (retryBudgetReserve < 0) {
+            throw new IllegalArgumentException("'retryBudgetReserve' cannot be negative.");
+        }
+        this.retryBudgetReserve = retryBudgetReserve;
+        return this;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * Sets how many consecutive failures against one endpoint open its circuit.
+     */
+    public ResilienceOptions setFailureThreshold(int failureThreshold) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("'failureThreshold' must be at least 1.");
+        }
+        this.failureThreshold = failureThreshold;
+        return this;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    /**
+     * Sets how long an open circuit rejects calls before letting a single probe through, and how
+     * long that probe may go without an outcome before another caller may probe.
+     */
+    public ResilienceOptions setOpenDuration(Duration openDuration) {
+        this.openDuration = requirePositive(openDuration, "openDuration");
+        return this;
+    }
+
+    public Duration getMinHedgeDelay() {
+        return minHedgeDelay;
+    }
+
+    /**
+     * Sets the minimum time to wait on a read before sending a hedged duplicate.
+     */
+    public ResilienceOptions setMinHedgeDelay(Duration minHedgeDelay) {
+        this.minHedgeDelay = requirePositive(minHedgeDelay, "minHedgeDelay");
+        return this;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    /**
+     * Sets the latency percentile after which a hedged read is sent, e.g. {@code 0.95}.
+     */
+    public ResilienceOptions setHedgePercentile(double hedgePercentile) {
+        if (hedgePercentile <= 0 || hedgePercentile >= 1) {
+            throw new IllegalArgumentException("'hedgePercentile' must be between 0 and 1, exclusive.");
+        }
+        this.hedgePercentile = hedgePercentile;
+        return this;
+    }
+
+    private static Duration requirePositive(Duration duration, String name) {
+        Objects.requireNonNull(duration, "'" + name + "' cannot be null.");
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("'" + name + "' must be positive.");
+        }
+        return duration;
+    }
+}
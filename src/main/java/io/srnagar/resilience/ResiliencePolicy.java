@@ -0,0 +1,283 @@
+package io.srnagar.resilience;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelineNextSyncPolicy;
+import com.azure.core.http.HttpPipelinePosition;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pipeline policy that retries transient failures with full-jitter exponential backoff,
+ * honours {@code Retry-After}, spends retries from a shared {@link RetryBudget} and keeps one
+ * {@link CircuitBreaker} per endpoint (scheme, host and port).
+ *
+ * The policy runs once per call, ahead of the SDK's own retry policy, so client builders that
+ * use it should turn their built-in retries off (see {@link Resilience#sdkRetriesDisabled()})
+ * or each attempt here would fan out into several attempts below.
+ */
+class ResiliencePolicy implements HttpPipelinePolicy {
+
+    private static final HttpHeaderName RETRY_AFTER_MS = HttpHeaderName.fromString("retry-after-ms");
+    private static final HttpHeaderName X_MS_RETRY_AFTER_MS = HttpHeaderName.fromString("x-ms-retry-after-ms");
+
+    private final ResilienceOptions options;
+    private final RetryBudget budget;
+    private final ConcurrentHashMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    ResiliencePolicy(ResilienceOptions options, RetryBudget budget) {
+        this.options = options;
+        this.budget = budget;
+    }
+
+    @Override
+    public HttpPipelinePosition getPipelinePosition() {
+        return HttpPipelinePosition.PER_CALL;
+    }
+
+    @Override
+    public Mono<HttpResponse> process(HttpPipelineCallContext context, HttpPipelineNextPolicy next) {
+        depositUnlessHedge();
+        String endpoint = endpointOf(context);
+        return attemptAsync(endpoint, breakerFor(endpoint), next, 0);
+    }
+
+    @Override
+    public HttpResponse processSync(HttpPipelineCallContext context, HttpPipelineNextSyncPolicy next) {
+        depositUnlessHedge();
+        String endpoint = endpointOf(context);
+        CircuitBreaker breaker = breakerFor(endpoint);
+
+        for (int attempt = 0; ; attempt++) {
+            if (!breaker.tryAcquire()) {
+                throw new CircuitBreakerOpenException(endpoint);
+            }
+
+            HttpResponse response;
+            try {
+                response = next.clone().processSync();
+            } catch (Error e) {
+                breaker.onAbandoned();
+                throw e;
+            } catch (RuntimeException e) {
+                if (isInterrupted(e)) {
+                    // Cancelled by the caller (e.g. a losing hedge); says nothing about the endpoint
+                    breaker.onAbandoned();
+                    throw e;
+                }
+                if (!isRetryable(e)) {
+                    // Not the endpoint's fault (e.g. authentication); don't leave a probe hanging
+                    breaker.onSuccess();
+                    throw e;
+                }
+                breaker.onFailure();
+                Duration delay = backoff(attempt);
+                if (!canRetry(attempt, breaker) || !sleep(delay)) {
+                    throw e;
+                }
+                continue;
+            }
+
+            if (!isRetryable(response.getStatusCode())) {
+                breaker.onSuccess();
+                return response;
+            }
+            breaker.onFailure();
+            Duration delay = delayFor(response, attempt);
+            if (delay == null || !canRetry(attempt, breaker)) {
+                return response;
+            }
+            response.close();
+            if (!sleep(delay)) {
+                throw new IllegalStateException("Interrupted while waiting to retry request to " + endpoint);
+            }
+        }
+    }
+
+    private Mono<HttpResponse> attemptAsync(String endpoint, CircuitBreaker breaker, HttpPipelineNextPolicy next,
+                                            int attempt) {
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquire()) {
+                return Mono.error(new CircuitBreakerOpenException(endpoint));
+            }
+            // Set once this attempt's outcome reaches the breaker, so a later cancel doesn't count twice
+            AtomicBoolean settled = new AtomicBoolean();
+            return next.clone().process()
+                .map(AttemptResult::success)
+                .onErrorResume(error -> Mono.just(AttemptResult.failure(error)))
+                .doOnCancel(() -> {
+                    if (settled.compareAndSet(false, true)) {
+                        breaker.onAbandoned();
+                    }
+                })
+                .flatMap(result -> {
+                    settled.set(true);
+                    if (result.error != null) {
+                        if (!isRetryable(result.error)) {
+                            breaker.onSuccess();
+                            return Mono.error(result.error);
+                        }
+                        breaker.onFailure();
+                        if (!canRetry(attempt, breaker)) {
+                            return Mono.error(result.error);
+                        }
+                        return attemptAsync(endpoint, breaker, next, attempt + 1)
+                            .delaySubscription(backoff(attempt));
+                    }
+
+                    HttpResponse response = result.response;
+                    if (!isRetryable(response.getStatusCode())) {
+                        breaker.onSuccess();
+                        return Mono.just(response);
+                    }
+                    breaker.onFailure();
+                    Duration delay = delayFor(response, attempt);
+                    if (delay == null || !canRetry(attempt, breaker)) {
+                        return Mono.just(response);
+                    }
+                    response.close();
+                    return attemptAsync(endpoint, breaker, next, attempt + 1).delaySubscription(delay);
+                });
+        });
+    }
+
+    /**
+     * A hedged duplicate is already paid for from the budget; only original requests fund it.
+     * Read on the calling thread, which is the hedge thread for the blocking clients hedged here.
+     */
+    private void depositUnlessHedge() {
+        if (!Resilience.isHedgeDuplicate()) {
+            budget.onRequest();
+        }
+    }
+
+    private boolean canRetry(int attempt, CircuitBreaker breaker) {
+        return attempt < options.getMaxRetries() && breaker.allowsRetry() && budget.tryAcquire();
+    }
+
+    /**
+     * Returns how long to wait before retrying a throttled or failed response, or {@code null}
+     * if the server asked for a longer pause than {@link ResilienceOptions#getMaxDelay()}.
+     */
+    private Duration delayFor(HttpResponse response, int attempt) {
+        Duration retryAfter = retryAfter(response);
+        if (retryAfter == null) {
+            return backoff(attempt);
+        }
+        return retryAfter.compareTo(options.getMaxDelay()) > 0 ? null : retryAfter;
+    }
+
+    private Duration backoff(int attempt) {
+        long ceiling = options.getBaseDelay().toMillis() << Math.min(attempt, 30);
+        long capped = Math.min(options.getMaxDelay().toMillis(), ceiling);
+        // Full jitter: spread retries uniformly so clients that failed together don't retry together
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(capped + 1));
+    }
+
+    private CircuitBreaker breakerFor(String endpoint) {
+        return breakers.computeIfAbsent(endpoint,
+            key -> new CircuitBreaker(options.getFailureThreshold(), options.getOpenDuration()));
+    }
+
+    private static String endpointOf(HttpPipelineCallContext context) {
+        URL url = context.getHttpRequest().getUrl();
+        int port = url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+        return url.getProtocol() + "://" + url.getHost() + ":" + port;
+    }
+
+    private static Duration retryAfter(HttpResponse response) {
+        for (HttpHeaderName name : new HttpHeaderName[] { RETRY_AFTER_MS, X_MS_RETRY_AFTER_MS }) {
+            String value = response.getHeaderValue(name);
+            if (value != null) {
+                try {
+                    return Duration.ofMillis(Long.parseLong(value.trim()));
+                } catch (NumberFormatException ignored) {
+                    // Fall through to the next header
+                }
+            }
+        }
+
+        String value = response.getHeaderValue(HttpHeaderName.RETRY_AFTER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration untilThen = Duration.between(ZonedDateTime.now(at.getZone()), at);
+                return untilThen.isNegative() ? Duration.ZERO : untilThen;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode == 408 || statusCode == 429 || statusCode == 500
+            || statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isInterrupted(Throwable error) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean sleep(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class AttemptResult {
+        private final HttpResponse response;
+        private final Throwable error;
+
+        private AttemptResult(HttpResponse response, Throwable error) {
+            this.response = response;
+            this.error = error;
+        }
+
+        static AttemptResult success(HttpResponse response) {
+            return new AttemptResult(response, null);
+        }
+
+        static AttemptResult failure(Throwable error) {
+            return new AttemptResult(null, error);
+        }
+    }
+}
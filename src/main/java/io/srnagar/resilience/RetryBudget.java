@@ -0,0 +1,33 @@
+package io.srnagar.resilience;
+
+/**
+ * Token bucket that caps retries (and hedges) as a share of overall traffic.
+ *
+ * Every first attempt deposits {@code ratio} tokens and every retry withdraws one, so a
+ * fleet of clients can never multiply load on a struggling service by more than
+ * {@code 1 + ratio}. The reserve lets low-volume callers retry before any traffic has built up.
+ */
+class RetryBudget {
+
+    private final double ratio;
+    private final double capacity;
+    private double balance;
+
+    RetryBudget(double ratio, int reserve) {
+        this.ratio = ratio;
+        this.capacity = Math.max(reserve, 1);
+        this.balance = reserve;
+    }
+
+    synchronized void onRequest() {
+        balance = Math.min(capacity, balance + ratio);
+    }
+
+    synchronized boolean tryAcquire() {
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+}
@@ -1,12 +1,19 @@
 package io.srnagar.storage;
 
-import com.azure.identity.DefaultAzureCredentialBuilder;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.common.policy.RequestRetryOptions;
+import com.azure.storage.common.policy.RetryPolicyType;
+import io.srnagar.faststart.FastStart;
+import io.srnagar.resilience.Resilience;
 
 import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 /**
  * Standalone Azure Storage Blob sample application
@@ -16,6 +23,9 @@ import java.io.ByteArrayInputStream;
  * - Uploading blobs
  * - Downloading blobs
  * - Listing blobs in a container
+ * - Retries, circuit breaking and hedged reads via the shared resilience layer
+ * - The shared fast-start credential, resolved on the first token request
+ * - Reading blobs through a local read-through disk cache
  * 
  * To run this sample:
  * 1. Set the AZURE_STORAGE_ACCOUNT_URL environment variable
@@ -36,10 +46,16 @@ public class App {
         }
         
         try {
-            // Create BlobServiceClient using DefaultAzureCredential
+            Resilience resilience = Resilience.getDefault();
+            
+            // Create BlobServiceClient with the fast-start credential
+            // Storage retries are limited to a single try so the resilience policy owns retry decisions
             BlobServiceClient blobServiceClient = new BlobServiceClientBuilder()
                 .endpoint(storageAccountUrl)
-                .credential(new DefaultAzureCredentialBuilder().build())
+                .credential(FastStart.credential())
+                .addPolicy(FastStart.startupProbe())
+                .addPolicy(resilience.getPolicy())
+                .retryOptions(new RequestRetryOptions(RetryPolicyType.FIXED, 1, (Integer) null, null, null, null))
                 .buildClient();
             
             String containerName = "sample-container-" + System.currentTimeMillis();
@@ -62,10 +78,21 @@ public class App {
             
             System.out.println("\\n⬇️  Downloading blob: " + blobName);
             
-            // Download blob
-            String downloadedContent = blobClient.downloadContent().toString();
+            // Download blob (idempotent, so a slow read may be hedged)
+            String downloadedContent = resilience.hedge(blobClient::downloadContent).toString();
             System.out.println("📄 Downloaded content: " + downloadedContent);
             
+            System.out.println("\\n💾 Reading blob through local cache: " + blobName);
+            
+            // Read through a local disk cache; the second read is served from the memory-mapped copy
+            BlobCache cache = new BlobCache(Paths.get(System.getProperty("java.io.tmpdir"), "azure-blob-cache"),
+                64L * 1024 * 1024, Duration.ofSeconds(30));
+            for (int i = 0; i < 2; i++) {
+                ByteBuffer cached = cache.read(blobClient);
+                System.out.println("📄 Cached content: " + StandardCharsets.UTF_8.decode(cached));
+            }
+            System.out.println("✅ Cache downloads: " + cache.getDownloadCount() + ", hits: " + cache.getHitCount());
+            
             System.out.println("\\n📋 Listing blobs in container:");
             
             // List blobs
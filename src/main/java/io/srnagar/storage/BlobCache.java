@@ -0,0 +1,358 @@
+package io.srnagar.storage;
+
+import com.azure.core.util.Context;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.BlobDownloadResponse;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local read-through disk cache for blobs.
+ *
+ * Content is stored once per MD5 in {@code <directory>/<md5>} and served from a read-only
+ * memory-mapped view, so blobs with identical content share one file. A blob read within
+ * {@code revalidateAfter} of its last validation is served without touching the network; after
+ * that the cache sends a conditional GET with {@code If-None-Match} and only downloads on change.
+ *
+ * Total size is capped with LRU eviction across content files, and concurrent reads of the same
+ * blob share a single fetch. Blobs larger than 2 GB cannot be mapped and are not supported.
+ *
+ * Usage:
+ * <pre>
+ * BlobCache cache = new BlobCache(Paths.get("blob-cache"), 512 * 1024 * 1024, Duration.ofSeconds(30));
+ * ByteBuffer content = cache.read(blobClient);
+ * </pre>
+ */
+public class BlobCache {
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long revalidateNanos;
+
+    /** Blob URL to the version of that blob held locally. */
+    private final ConcurrentHashMap<String, CachedBlob> blobs = new ConcurrentHashMap<>();
+    /** Blob URL to the fetch currently in flight for it. */
+    private final ConcurrentHashMap<String, CompletableFuture<ByteBuffer>> inFlight = new ConcurrentHashMap<>();
+    /** Content MD5 to mapped file, in access order for LRU eviction. Guarded by {@code this}. */
+    private final LinkedHashMap<String, ContentFile> contents = new LinkedHashMap<>(16, 0.75f, true);
+    /** Content MD5 to the blob URLs recorded with it, so eviction can drop them. Guarded by {@code this}. */
+    private final Map<String, Set<String>> urlsByContent = new HashMap<>();
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong downloads = new AtomicLong();
+
+    public BlobCache(Path directory, long maxBytes, Duration revalidateAfter) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("'maxBytes' must be positive.");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+        this.revalidateNanos = revalidateAfter.toNanos();
+        adoptExistingFiles();
+    }
+
+    /**
+     * Returns the blob's content as a read-only buffer, downloading it only if it is not cached
+     * or has changed since it was cached.
+     */
+    public ByteBuffer read(BlobClient blobClient) {
+        String url = blobClient.getBlobUrl();
+        CachedBlob cached = blobs.get(url);
+        if (cached != null && System.nanoTime() - cached.validatedAt < revalidateNanos) {
+            ByteBuffer content = open(cached);
+            if (content != null) {
+                hits.incrementAndGet();
+                return content;
+            }
+        }
+
+        // Only the first concurrent reader fetches; the others wait on its result
+        CompletableFuture<ByteBuffer> fetch = new CompletableFuture<>();
+        CompletableFuture<ByteBuffer> existing = inFlight.putIfAbsent(url, fetch);
+        if (existing == null) {
+            try {
+                fetch.complete(fetch(blobClient, url, true));
+            } catch (RuntimeException e) {
+                fetch.completeExceptionally(e);
+            } finally {
+                inFlight.remove(url, fetch);
+            }
+        }
+
+        try {
+            // The buffer was mapped when the content was stored, so a later eviction can't take it away;
+            // each reader gets its own position
+            return (existing != null ? existing : fetch).join().asReadOnlyBuffer();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    public long getDownloadCount() {
+        return downloads.get();
+    }
+
+    public synchronized long getSizeBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Downloads the blob, or revalidates the cached copy when {@code conditional}, and returns
+     * its content mapped while the cache lock was held.
+     */
+    private ByteBuffer fetch(BlobClient blobClient, String url, boolean conditional) {
+        CachedBlob cached = conditional ? blobs.get(url) : null;
+        BlobRequestConditions conditions = new BlobRequestConditions();
+        if (cached != null && hasContent(cached.md5)) {
+            conditions.setIfNoneMatch(cached.eTag);
+        } else {
+            cached = null;
+        }
+
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, "download-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            BlobDownloadResponse response;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                response = blobClient.downloadStreamWithResponse(out, null, null, conditions, false, null,
+                    Context.NONE);
+            } catch (BlobStorageException e) {
+                if (e.getStatusCode() == 304 && cached != null) {
+                    return revalidated(blobClient, url, cached);
+                }
+                throw e;
+            }
+            if (response.getStatusCode() == 304 && cached != null) {
+                return revalidated(blobClient, url, cached);
+            }
+
+            byte[] actualMd5 = digest.digest();
+            byte[] expectedMd5 = response.getDeserializedHeaders().getContentMd5();
+            if (expectedMd5 != null && !Arrays.equals(expectedMd5, actualMd5)) {
+                throw new IllegalStateException("Content MD5 mismatch while caching " + url);
+            }
+
+            String md5 = toHex(actualMd5);
+            CachedBlob fresh = new CachedBlob(response.getDeserializedHeaders().getETag(), md5, System.nanoTime());
+            ByteBuffer content = store(url, fresh, temp);
+            temp = null;
+            downloads.incrementAndGet();
+            return content;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to cache " + url, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        } finally {
+            if (temp != null) {
+                deleteQuietly(temp);
+            }
+        }
+    }
+
+    private ByteBuffer revalidated(BlobClient blobClient, String url, CachedBlob cached) {
+        synchronized (this) {
+            ContentFile file = contents.get(cached.md5);
+            if (file != null) {
+                notModified.incrementAndGet();
+                remember(url, new CachedBlob(cached.eTag, cached.md5, System.nanoTime()));
+                return map(file);
+            }
+        }
+        // Evicted while the request was in flight; download it unconditionally
+        return fetch(blobClient, url, false);
+    }
+
+    /**
+     * Records which version of a blob is cached. Caller holds {@code this} and has checked that
+     * the content is present.
+     */
+    private void remember(String url, CachedBlob blob) {
+        blobs.put(url, blob);
+        urlsByContent.computeIfAbsent(blob.md5, md5 -> new HashSet<>()).add(url);
+    }
+
+    /**
+     * Moves a downloaded file into place under its MD5, records the blob and evicts least recently
+     * used content until the cache fits. If identical content is already cached the download is
+     * discarded. Returns the content, mapped before any other store can evict it.
+     */
+    private synchronized ByteBuffer store(String url, CachedBlob blob, Path temp) throws IOException {
+        ContentFile file = contents.get(blob.md5);
+        if (file != null) {
+            deleteQuietly(temp);
+        } else {
+            Path target = directory.resolve(blob.md5);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Left behind by an earlier process; content-addressed, so it is identical
+                deleteQuietly(temp);
+            }
+            file = ContentFile.map(target);
+            contents.put(blob.md5, file);
+            totalBytes += file.size;
+            evict(blob.md5);
+        }
+        remember(url, blob);
+        return map(file);
+    }
+
+    private synchronized ByteBuffer open(CachedBlob cached) {
+        ContentFile file = contents.get(cached.md5);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return map(file);
+        } catch (UncheckedIOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a read-only view of the file's mapping, mapping it first if needed. Caller holds {@code this}.
+     */
+    private static ByteBuffer map(ContentFile file) {
+        if (file.buffer == null) {
+            try {
+                file.buffer = ContentFile.map(file.path).buffer;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to map cached content " + file.path, e);
+            }
+        }
+        return file.buffer.asReadOnlyBuffer();
+    }
+
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, ContentFile>> iterator = contents.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, ContentFile> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            iterator.remove();
+            totalBytes -= eldest.getValue().size;
+            // Readers holding a buffer keep their mapping; only the directory entry goes away
+            deleteQuietly(eldest.getValue().path);
+
+            // Forget the URLs that pointed at this content so the URL map stays within the cap too
+            String md5 = eldest.getKey();
+            Set<String> urls = urlsByContent.remove(md5);
+            if (urls != null) {
+                for (String url : urls) {
+                    blobs.computeIfPresent(url, (key, blob) -> blob.md5.equals(md5) ? null : blob);
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers content files left by a previous process so they count towards the size cap
+     * and can be reused when a download turns out to have the same MD5.
+     */
+    private synchronized void adoptExistingFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    deleteQuietly(file);
+                } else if (name.length() == 32 && Files.isRegularFile(file)) {
+                    long size = Files.size(file);
+                    contents.put(name, new ContentFile(file, size, null));
+                    totalBytes += size;
+                }
+            }
+        }
+        evict(null);
+    }
+
+    private synchronized boolean hasContent(String md5) {
+        return contents.containsKey(md5);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Best effort; e.g. Windows refuses to delete files that are still mapped
+        }
+    }
+
+    private static final class CachedBlob {
+        private final String eTag;
+        private final String md5;
+        private final long validatedAt;
+
+        CachedBlob(String eTag, String md5, long validatedAt) {
+            this.eTag = eTag;
+            this.md5 = md5;
+            this.validatedAt = validatedAt;
+        }
+    }
+
+    private static final class ContentFile {
+        private final Path path;
+        private final long size;
+        private MappedByteBuffer buffer;
+
+        ContentFile(Path path, long size, MappedByteBuffer buffer) {
+            this.path = path;
+            this.size = size;
+            this.buffer = buffer;
+        }
+
+        static ContentFile map(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                return new ContentFile(path, size, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+        }
+    }
+}
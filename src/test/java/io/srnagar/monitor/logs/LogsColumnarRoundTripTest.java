@@ -0,0 +1,99 @@
+package io.srnagar.monitor.logs;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LogsColumnarRoundTripTest {
+
+    private static final List<String> NAMES = List.of("TimeGenerated", "Level", "Message");
+    private static final List<String> TYPES = List.of("datetime", "string", "string");
+    private static final int ROWS = 1000;
+    private static final int BLOCK_ROWS = 7;
+
+    @Test
+    public void rowsRoundTrip() throws IOException {
+        List<String[]> rows = rows();
+        LogsColumnarReader reader = new LogsColumnarReader(new ByteArrayInputStream(write(rows)));
+        assertEquals(NAMES, reader.getColumnNames());
+        assertEquals(TYPES, reader.getColumnTypes());
+
+        List<String[]> read = new ArrayList<>();
+        long count = reader.forEachRow(row -> read.add(row.clone()));
+        assertEquals(ROWS, count);
+        for (int i = 0; i < ROWS; i++) {
+            assertArrayEquals("row " + i, rows.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    public void blocksHoldAtMostBlockRows() throws IOException {
+        List<String[]> rows = rows();
+        LogsColumnarReader reader = new LogsColumnarReader(new ByteArrayInputStream(write(rows)));
+
+        int row = 0;
+        LogsColumnarReader.Block block;
+        while ((block = reader.readBlock(2)) != null) {
+            assertTrue(block.getRowCount() <= BLOCK_ROWS);
+            assertNull("unrequested column decoded", block.getColumn(0));
+            for (int r = 0; r < block.getRowCount(); r++) {
+                assertEquals(rows.get(row++)[2], block.getColumn(2)[r]);
+            }
+        }
+        assertEquals(ROWS, row);
+    }
+
+    @Test
+    public void flippedByteIsDetected() throws IOException {
+        byte[] file = write(rows());
+
+        // Header: magic, version, column count, then each name and type as modified UTF-8 (ASCII here)
+        int header = 12;
+        for (int i = 0; i < NAMES.size(); i++) {
+            header += 2 + NAMES.get(i).length() + 2 + TYPES.get(i).length();
+        }
+        // First block: row count, then the first chunk's compressed length, raw length and CRC
+        file[header + 4 + 12 + 1] ^= 0x10;
+
+        try {
+            new LogsColumnarReader(new ByteArrayInputStream(file)).forEachRow(row -> { });
+            fail("Corrupted chunk was not detected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Checksum mismatch in block 0"));
+        }
+    }
+
+    private static List<String[]> rows() {
+        String[] levels = { "Information", "Warning", "Error", null };
+        String[] messages = { "Request completed", "Zugriff verweigert für Benutzer 'müller'", "请求超时",
+            "Ошибка подключения", "", null, "emoji 🚀 in payload" };
+        List<String[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            String time = i % 97 == 0 ? null : "2024-01-01T00:" + String.format("%02d:%02d", i / 60 % 60, i % 60) + "Z";
+            // Runs of repeated levels exercise the run-length encoding
+            rows.add(new String[] { time, levels[i / 5 % levels.length], messages[i % messages.length] });
+        }
+        return rows;
+    }
+
+    private static byte[] write(List<String[]> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (LogsColumnarWriter writer = new LogsColumnarWriter(out, NAMES, TYPES, BLOCK_ROWS)) {
+            for (String[] row : rows) {
+                writer.writeRow(row.clone());
+            }
+            assertEquals(ROWS, writer.getRowCount());
+        }
+        return out.toByteArray();
+    }
+}